@@ -0,0 +1,236 @@
+package bcx.automation.playwright;
+
+import bcx.automation.properties.GlobalProp;
+import com.microsoft.playwright.PlaywrightException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ordonnanceur des lancements de navigateurs.
+ * Limite le nombre de navigateurs lancés simultanément (browserLaunchConcurrency), permet de pré-lancer
+ * en tâche de fond le navigateur du test suivant (browserPrelaunch) et mesure les temps de lancement.
+ */
+@Slf4j
+public class BrowserLauncher {
+    private static final int SLOT_TIMEOUT_SECONDS = 120;
+    private static final int MAX_SAMPLES = 1024;
+    private static final long BASE_BACKOFF_MS = 250;
+    private static final long MAX_BACKOFF_MS = 4000;
+    private static final Map<String, Queue<Future<LaunchedBrowser>>> prelaunched = new ConcurrentHashMap<>();
+    private static final long[] latencySamples = new long[MAX_SAMPLES];
+    private static final AtomicInteger sampleCount = new AtomicInteger();
+    private static final AtomicInteger prelaunchHits = new AtomicInteger();
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static volatile Semaphore launchSlots;
+    private static final Object lock = new Object();
+    private static volatile ExecutorService executor;
+
+    private BrowserLauncher() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Lance un navigateur en respectant le nombre maximum de lancements simultanés.
+     *
+     * @param browserType Le type de navigateur.
+     * @param proxy Le proxy à utiliser.
+     * @param locale La langue par défaut du navigateur.
+     * @return Le navigateur lancé.
+     */
+    public static LaunchedBrowser launch(String browserType, String proxy, String locale) {
+        long start = System.nanoTime();
+        Semaphore slots = slots();
+        try {
+            if (!slots.tryAcquire(SLOT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new PlaywrightException("BrowserLauncher : aucun créneau de lancement libre après " + SLOT_TIMEOUT_SECONDS + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlaywrightException("BrowserLauncher : attente d'un créneau de lancement interrompue", e);
+        }
+        try {
+            LaunchedBrowser launchedBrowser = PlaywrightBrowser.launch(browserType, proxy, locale);
+            recordLatency(System.nanoTime() - start);
+            return launchedBrowser;
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Renvoie un navigateur pré-lancé pour ces paramètres s'il y en a un, sinon en lance un.
+     *
+     * @param browserType Le type de navigateur.
+     * @param proxy Le proxy à utiliser.
+     * @param locale La langue par défaut du navigateur.
+     * @return Le navigateur lancé.
+     */
+    public static LaunchedBrowser take(String browserType, String proxy, String locale) {
+        Queue<Future<LaunchedBrowser>> queue = prelaunched.get(BrowserPool.key(browserType, GlobalProp.isHeadless(), proxy, locale));
+        Future<LaunchedBrowser> future;
+        while (queue != null && (future = queue.poll()) != null) {
+            LaunchedBrowser launchedBrowser = await(future);
+            if (launchedBrowser != null && launchedBrowser.isHealthy()) {
+                prelaunchHits.incrementAndGet();
+                return launchedBrowser;
+            } else if (launchedBrowser != null) {
+                launchedBrowser.close();
+            }
+        }
+        return launch(browserType, proxy, locale);
+    }
+
+    /**
+     * Pré-lance en tâche de fond un navigateur pour le prochain test, dans la limite de browserPrelaunch
+     * navigateurs en attente par jeu de paramètres.
+     *
+     * @param browserType Le type de navigateur.
+     * @param proxy Le proxy à utiliser.
+     * @param locale La langue par défaut du navigateur.
+     */
+    public static void prelaunch(String browserType, String proxy, String locale) {
+        if (GlobalProp.getBrowserPrelaunch() <= 0) {
+            return;
+        }
+        Queue<Future<LaunchedBrowser>> queue = prelaunched.computeIfAbsent(
+                BrowserPool.key(browserType, GlobalProp.isHeadless(), proxy, locale), k -> new ConcurrentLinkedQueue<>());
+        if (queue.size() < GlobalProp.getBrowserPrelaunch()) {
+            queue.offer(executor().submit(() -> launch(browserType, proxy, locale)));
+        }
+    }
+
+    /**
+     * Exécute une tâche de lancement en tâche de fond (réapprovisionnement du pool).
+     *
+     * @param task La tâche à exécuter.
+     */
+    public static void submit(Runnable task) {
+        executor().submit(task);
+    }
+
+    /**
+     * Attend avant une nouvelle tentative de démarrage, avec un délai exponentiel et une part aléatoire.
+     *
+     * @param attempt Le numéro de la tentative échouée, à partir de 1.
+     */
+    public static void backoff(int attempt) {
+        long delay = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 10));
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Attend la fin des lancements en tâche de fond, ferme les navigateurs pré-lancés non utilisés
+     * et logue les métriques de lancement.
+     */
+    public static void shutdown() {
+        ExecutorService current;
+        synchronized (lock) {
+            current = executor;
+            executor = null;
+        }
+        if (current != null) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(SLOT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("BrowserLauncher : lancements en tâche de fond toujours en cours");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Queue<Future<LaunchedBrowser>> queue : prelaunched.values()) {
+            Future<LaunchedBrowser> future;
+            while ((future = queue.poll()) != null) {
+                LaunchedBrowser launchedBrowser = await(future);
+                if (launchedBrowser != null) launchedBrowser.close();
+            }
+        }
+        if (sampleCount.get() > 0) {
+            log.info(getMetrics());
+        }
+    }
+
+    /**
+     * Renvoie les métriques de lancement : nombre de lancements, percentiles p50/p90/p99 et navigateurs pré-lancés utilisés.
+     *
+     * @return Les métriques sous forme de texte.
+     */
+    public static String getMetrics() {
+        long[] samples;
+        int count;
+        synchronized (latencySamples) {
+            count = Math.min(sampleCount.get(), MAX_SAMPLES);
+            samples = Arrays.copyOf(latencySamples, count);
+        }
+        Arrays.sort(samples);
+        return "BrowserLauncher : " + sampleCount.get() + " lancement(s), p50 " + percentile(samples, 50)
+                + " ms, p90 " + percentile(samples, 90) + " ms, p99 " + percentile(samples, 99) + " ms, "
+                + prelaunchHits.get() + " navigateur(s) pré-lancé(s) utilisé(s)";
+    }
+
+    private static long percentile(long[] sortedSamples, int percentile) {
+        if (sortedSamples.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedSamples.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedSamples[Math.max(0, index)]);
+    }
+
+    private static void recordLatency(long nanos) {
+        synchronized (latencySamples) {
+            latencySamples[sampleCount.getAndIncrement() % MAX_SAMPLES] = nanos;
+        }
+    }
+
+    private static LaunchedBrowser await(Future<LaunchedBrowser> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Échec du pré-lancement du navigateur", e.getCause());
+        }
+        return null;
+    }
+
+    private static Semaphore slots() {
+        if (launchSlots == null) {
+            synchronized (BrowserLauncher.class) {
+                if (launchSlots == null) {
+                    launchSlots = new Semaphore(Math.max(1, GlobalProp.getBrowserLaunchConcurrency()));
+                }
+            }
+        }
+        return launchSlots;
+    }
+
+    private static ExecutorService executor() {
+        synchronized (lock) {
+            if (executor == null) {
+                executor = Executors.newCachedThreadPool(r -> {
+                    Thread thread = new Thread(r, "bcx-browser-launcher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            return executor;
+        }
+    }
+}
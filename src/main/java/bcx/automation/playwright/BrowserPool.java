@@ -0,0 +1,273 @@
+package bcx.automation.playwright;
+
+import bcx.automation.properties.GlobalProp;
+import com.microsoft.playwright.PlaywrightException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de navigateurs lancés, partagé entre les threads TestNG.
+ * Les navigateurs sont regroupés par clé (type, headless, proxy, langue) et prêtés en exclusivité à un test,
+ * qui n'y ouvre qu'un nouveau BrowserContext. Le nombre de navigateurs lancés est plafonné par type de navigateur.
+ * Un thread qui détient déjà un navigateur du type demandé (contexte secondaire d'un test) n'attend pas sous le plafond :
+ * s'il n'y a ni navigateur disponible ni place libre, un navigateur hors plafond lui est lancé et fermé à sa restitution,
+ * sinon tous les threads pourraient attendre qu'un autre rende le sien.
+ */
+@Slf4j
+public class BrowserPool {
+    private static final int LEASE_TIMEOUT_SECONDS = 120;
+    private static final Map<String, BlockingDeque<LaunchedBrowser>> idleBrowsers = new ConcurrentHashMap<>();
+    private static final Map<String, Semaphore> capacityByType = new ConcurrentHashMap<>();
+    private static final Map<LaunchedBrowser, Thread> leasedBy = new ConcurrentHashMap<>();
+    private static final Set<LaunchedBrowser> overflowBrowsers = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong leaseCount = new AtomicLong();
+    private static final AtomicLong leaseWaitNanos = new AtomicLong();
+    private static final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private static final AtomicLong launchCount = new AtomicLong();
+    private static final AtomicLong discardCount = new AtomicLong();
+    private static final AtomicLong overflowCount = new AtomicLong();
+
+    private BrowserPool() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Construit la clé de regroupement des navigateurs du pool.
+     *
+     * @param browserType Le type de navigateur.
+     * @param headless Indique si le navigateur est lancé sans interface.
+     * @param proxy Le proxy utilisé.
+     * @param locale La langue du navigateur.
+     * @return La clé du pool.
+     */
+    public static String key(String browserType, boolean headless, String proxy, String locale) {
+        return browserType + "|" + headless + "|" + proxy + "|" + locale;
+    }
+
+    /**
+     * Lance à l'avance des navigateurs avec les paramètres par défaut pour qu'ils soient prêts au premier test.
+     *
+     * @param count Le nombre de navigateurs à lancer.
+     */
+    public static void prewarm(int count) {
+        String browserType = GlobalProp.getBrowser();
+        String locale = PlaywrightBrowser.DEFAULT_LOCALE;
+        String key = key(browserType, GlobalProp.isHeadless(), null, locale);
+        for (int i = 0; i < count; i++) {
+            if (!capacity(browserType).tryAcquire()) {
+                break;
+            }
+            try {
+                idle(key).offerLast(launch(browserType, null, locale));
+            } catch (Exception e) {
+                capacity(browserType).release();
+                log.error("Échec du pré-lancement du navigateur " + key, e);
+            }
+        }
+        log.info("BrowserPool : " + idle(key).size() + " navigateur(s) pré-lancé(s) pour " + key);
+    }
+
+    /**
+     * Prête un navigateur du pool, en le lançant si aucun n'est disponible et que le plafond n'est pas atteint.
+     * Sinon attend qu'un autre test rende un navigateur, sauf si le thread appelant en détient déjà un du même type :
+     * un navigateur hors plafond lui est alors lancé.
+     *
+     * @param browserType Le type de navigateur.
+     * @param proxy Le proxy à utiliser.
+     * @param locale La langue par défaut du navigateur.
+     * @return Le navigateur prêté, à rendre avec {@link #release(LaunchedBrowser)}.
+     */
+    public static LaunchedBrowser lease(String browserType, String proxy, String locale) {
+        long start = System.nanoTime();
+        String key = key(browserType, GlobalProp.isHeadless(), proxy, locale);
+        BlockingDeque<LaunchedBrowser> deque = idle(key);
+        long deadline = start + TimeUnit.SECONDS.toNanos(LEASE_TIMEOUT_SECONDS);
+        LaunchedBrowser leased = null;
+        try {
+            while (leased == null) {
+                LaunchedBrowser candidate = deque.pollFirst();
+                if (candidate == null && (capacity(browserType).tryAcquire() || evictIdle(browserType, key))) {
+                    try {
+                        candidate = launch(browserType, proxy, locale);
+                    } catch (RuntimeException e) {
+                        capacity(browserType).release();
+                        throw e;
+                    }
+                }
+                if (candidate == null && holdsBrowser(browserType)) {
+                    candidate = launch(browserType, proxy, locale);
+                    overflowBrowsers.add(candidate);
+                    overflowCount.incrementAndGet();
+                    log.info("BrowserPool : plafond atteint pour " + browserType + ", navigateur hors plafond lancé pour un contexte secondaire du thread " + Thread.currentThread().getName());
+                }
+                if (candidate == null) {
+                    if (System.nanoTime() > deadline) {
+                        throw new PlaywrightException("BrowserPool : aucun navigateur disponible pour " + key + " après " + LEASE_TIMEOUT_SECONDS + "s");
+                    }
+                    candidate = deque.pollFirst(500, TimeUnit.MILLISECONDS);
+                }
+                if (candidate != null && candidate.isHealthy()) {
+                    leased = candidate;
+                } else if (candidate != null) {
+                    discard(candidate);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlaywrightException("BrowserPool : attente interrompue pour " + key, e);
+        }
+        leasedBy.put(leased, Thread.currentThread());
+        if (deque.isEmpty() && GlobalProp.getBrowserPrelaunch() > 0) {
+            replenish(browserType, proxy, locale);
+        }
+        long wait = System.nanoTime() - start;
+        leaseCount.incrementAndGet();
+        leaseWaitNanos.addAndGet(wait);
+        maxLeaseWaitNanos.accumulateAndGet(wait, Math::max);
+        return leased;
+    }
+
+    /**
+     * Rend un navigateur au pool. Ses contextes restants sont fermés et il est écarté s'il n'est plus connecté.
+     *
+     * @param launchedBrowser Le navigateur à rendre.
+     */
+    public static void release(LaunchedBrowser launchedBrowser) {
+        if (launchedBrowser == null) {
+            return;
+        }
+        leasedBy.remove(launchedBrowser);
+        if (overflowBrowsers.remove(launchedBrowser)) {
+            launchedBrowser.close();
+            return;
+        }
+        if (launchedBrowser.isHealthy()) {
+            launchedBrowser.closeContexts();
+        }
+        if (launchedBrowser.isHealthy()) {
+            idle(launchedBrowser.getPoolKey()).offerFirst(launchedBrowser);
+        } else {
+            discard(launchedBrowser);
+        }
+    }
+
+    /**
+     * Ferme tous les navigateurs disponibles du pool et logue les métriques.
+     */
+    public static void shutdown() {
+        for (BlockingDeque<LaunchedBrowser> deque : idleBrowsers.values()) {
+            LaunchedBrowser launchedBrowser;
+            while ((launchedBrowser = deque.pollFirst()) != null) {
+                launchedBrowser.close();
+                capacity(launchedBrowser.getBrowserType()).release();
+            }
+        }
+        if (leaseCount.get() > 0 || launchCount.get() > 0) {
+            log.info(getMetrics());
+        }
+    }
+
+    /**
+     * Renvoie les métriques du pool : nombre de prêts, temps d'attente moyen et maximum, lancements et rejets.
+     *
+     * @return Les métriques sous forme de texte.
+     */
+    public static String getMetrics() {
+        long leases = leaseCount.get();
+        long averageWaitMs = leases == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.get() / leases);
+        return "BrowserPool : " + leases + " prêt(s), attente moyenne " + averageWaitMs + " ms, attente max "
+                + TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get()) + " ms, "
+                + launchCount.get() + " lancement(s) dont " + overflowCount.get() + " hors plafond, " + discardCount.get() + " navigateur(s) écarté(s)";
+    }
+
+    /**
+     * Lance en tâche de fond un navigateur supplémentaire pour le pool si le plafond le permet,
+     * afin que le prochain test n'attende pas le lancement.
+     */
+    private static void replenish(String browserType, String proxy, String locale) {
+        if (!capacity(browserType).tryAcquire()) {
+            return;
+        }
+        try {
+            BrowserLauncher.submit(() -> {
+                try {
+                    LaunchedBrowser launchedBrowser = launch(browserType, proxy, locale);
+                    idle(launchedBrowser.getPoolKey()).offerLast(launchedBrowser);
+                } catch (Exception e) {
+                    capacity(browserType).release();
+                    log.warn("Échec du pré-lancement du navigateur pour le pool", e);
+                }
+            });
+        } catch (RuntimeException e) {
+            capacity(browserType).release();
+            log.warn("Pré-lancement du navigateur pour le pool impossible", e);
+        }
+    }
+
+    /**
+     * Lance un nouveau navigateur pour le pool.
+     */
+    private static LaunchedBrowser launch(String browserType, String proxy, String locale) {
+        LaunchedBrowser launchedBrowser = BrowserLauncher.launch(browserType, proxy, locale);
+        launchCount.incrementAndGet();
+        return launchedBrowser;
+    }
+
+    /**
+     * Ferme un navigateur inutilisable et libère sa place.
+     */
+    private static void discard(LaunchedBrowser launchedBrowser) {
+        discardCount.incrementAndGet();
+        launchedBrowser.close();
+        if (!overflowBrowsers.remove(launchedBrowser)) {
+            capacity(launchedBrowser.getBrowserType()).release();
+        }
+    }
+
+    /**
+     * Ferme un navigateur disponible du même type mais d'une autre clé pour libérer une place sous le plafond.
+     *
+     * @return Vrai si une place a été libérée et réservée pour l'appelant.
+     */
+    private static boolean evictIdle(String browserType, String keepKey) {
+        for (Map.Entry<String, BlockingDeque<LaunchedBrowser>> entry : idleBrowsers.entrySet()) {
+            if (!entry.getKey().equals(keepKey) && entry.getKey().startsWith(browserType + "|")) {
+                LaunchedBrowser evicted = entry.getValue().pollLast();
+                if (evicted != null) {
+                    evicted.close();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si le thread courant détient déjà un navigateur prêté du type demandé.
+     */
+    private static boolean holdsBrowser(String browserType) {
+        Thread current = Thread.currentThread();
+        for (Map.Entry<LaunchedBrowser, Thread> entry : leasedBy.entrySet()) {
+            if (entry.getValue() == current && entry.getKey().getBrowserType().equals(browserType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BlockingDeque<LaunchedBrowser> idle(String key) {
+        return idleBrowsers.computeIfAbsent(key, k -> new LinkedBlockingDeque<>());
+    }
+
+    private static Semaphore capacity(String browserType) {
+        return capacityByType.computeIfAbsent(browserType, t -> new Semaphore(Math.max(1, GlobalProp.getBrowserPoolMaxPerType())));
+    }
+}
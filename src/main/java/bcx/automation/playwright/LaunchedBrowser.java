@@ -0,0 +1,77 @@
+package bcx.automation.playwright;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Playwright;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Navigateur lancé avec son driver Playwright.
+ * Un navigateur n'est utilisé que par un seul thread à la fois (Playwright n'est pas thread-safe).
+ */
+@Slf4j
+@Getter
+public class LaunchedBrowser {
+    private final Playwright playwright;
+    private final Browser browser;
+    private final String browserType;
+    private final String poolKey;
+
+    /**
+     * Constructeur de la classe LaunchedBrowser.
+     *
+     * @param playwright Le driver Playwright ayant lancé le navigateur.
+     * @param browser Le navigateur.
+     * @param browserType Le type de navigateur.
+     * @param poolKey La clé du pool (type, headless, proxy, langue).
+     */
+    public LaunchedBrowser(Playwright playwright, Browser browser, String browserType, String poolKey) {
+        this.playwright = playwright;
+        this.browser = browser;
+        this.browserType = browserType;
+        this.poolKey = poolKey;
+    }
+
+    /**
+     * Vérifie que le navigateur est toujours connecté.
+     *
+     * @return Vrai si le navigateur est utilisable, faux sinon.
+     */
+    public boolean isHealthy() {
+        try {
+            return browser.isConnected();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Ferme tous les contextes encore ouverts sur le navigateur.
+     */
+    public void closeContexts() {
+        for (BrowserContext context : browser.contexts()) {
+            try {
+                context.close();
+            } catch (Exception ignore) {
+                // contexte déjà fermé
+            }
+        }
+    }
+
+    /**
+     * Ferme le navigateur et son driver Playwright.
+     */
+    public void close() {
+        try {
+            browser.close();
+        } catch (Exception e) {
+            log.warn("Échec de la fermeture du navigateur " + poolKey, e);
+        }
+        try {
+            playwright.close();
+        } catch (Exception e) {
+            log.warn("Échec de la fermeture de Playwright " + poolKey, e);
+        }
+    }
+}
@@ -2,9 +2,7 @@ package bcx.automation.playwright;
 
 import bcx.automation.properties.GlobalProp;
 import bcx.automation.test.TestContext;
-import bcx.automation.util.TimeWait;
 import com.microsoft.playwright.*;
-import com.microsoft.playwright.options.Proxy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.file.Paths;
@@ -14,6 +12,8 @@ import java.util.List;
 
 @Slf4j
 public class PlaywrightBrowser {
+    public static final String DEFAULT_LOCALE = "fr-FR";
+    private static final int MAX_START_ATTEMPTS = 5;
 
     /**
      * Démarre un nouveau navigateur avec les paramètres par défaut.
@@ -34,67 +34,105 @@ public class PlaywrightBrowser {
      * @param credentialPassword Le mot de passe pour les identifiants HTTP.
      */
     public static void startNewBrowser(TestContext testContext, String proxy, String locale, String browserType, String credentialUser, String credentialPassword) {
-        Playwright playwright = Playwright.create();
-        boolean browserOk = false;
-        TimeWait t = new TimeWait();
-        while (!browserOk && t.notOver(5)) {
+        browserType = browserType == null ? GlobalProp.getBrowser() : browserType;
+        locale = locale == null ? DEFAULT_LOCALE : locale;
+        for (int attempt = 1; attempt <= MAX_START_ATTEMPTS; attempt++) {
+            LaunchedBrowser launchedBrowser = null;
             try {
-                browserType = browserType == null ? GlobalProp.getBrowser() : browserType;
-                locale = locale == null ? "fr-FR" : locale;
                 System.setProperty("LANG", locale);
                 System.setProperty("LC_TIME", locale);
-
-                List<String> args = getStrings(proxy);
-                if (GlobalProp.getTestIdAttribute() != null) {
-                    playwright.selectors().setTestIdAttribute(GlobalProp.getTestIdAttribute());
+                if (GlobalProp.isBrowserPool()) {
+                    launchedBrowser = BrowserPool.lease(browserType, proxy, locale);
+                    testContext.setPooledBrowser(launchedBrowser);
+                } else {
+                    launchedBrowser = BrowserLauncher.take(browserType, proxy, locale);
                 }
-                BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                        .setHeadless(GlobalProp.isHeadless())
-                        .setArgs(args);
-                if (proxy != null) {
-                    launchOptions.setProxy(new Proxy(proxy));
-                }
-                Browser browser;
-                switch (String.valueOf(browserType)) {
-                    case "FF":
-                        browser = playwright.firefox().launch(new BrowserType.LaunchOptions().setArgs(args).setHeadless(GlobalProp.isHeadless()));
-                        break;
-                    default: //chrome
-                        browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setArgs(args).setHeadless(GlobalProp.isHeadless()));
-                        break;
+                testContext.setPlaywright(launchedBrowser.getPlaywright());
+                testContext.setBrowser(launchedBrowser.getBrowser());
+                testContext.setBrowserType(browserType);
+                testContext.setProxy(proxy);
+                testContext.setContextLocale(locale);
+                testContext.setCredentialUser(credentialUser);
+                testContext.setCredentialPassword(credentialPassword);
+                openContext(testContext, launchedBrowser.getBrowser(), locale, credentialUser, credentialPassword);
+                return;
+            } catch (Exception e) {
+                log.error("Échec du démarrage du navigateur (tentative " + attempt + "/" + MAX_START_ATTEMPTS + ")", e);
+                if (testContext.getPooledBrowser() != null) {
+                    BrowserPool.release(testContext.getPooledBrowser());
+                    testContext.setPooledBrowser(null);
+                } else if (launchedBrowser != null) {
+                    launchedBrowser.close();
                 }
+                if (attempt < MAX_START_ATTEMPTS) BrowserLauncher.backoff(attempt);
+            }
+        }
+    }
 
-                Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
-                        .setAcceptDownloads(true) // Autoriser les téléchargements
-                        .setViewportSize(GlobalProp.getBrowserWidth(), GlobalProp.getBrowserHeigth())
-                        .setIgnoreHTTPSErrors(true)
-                        .setLocale(locale); // Ignorer les erreurs de certificat
+    /**
+     * Lance un navigateur et son driver Playwright.
+     *
+     * @param browserType Le type de navigateur.
+     * @param proxy Le proxy à utiliser.
+     * @param locale La langue par défaut du navigateur.
+     * @return Le navigateur lancé.
+     */
+    public static LaunchedBrowser launch(String browserType, String proxy, String locale) {
+        Playwright playwright = Playwright.create();
+        try {
+            List<String> args = getStrings(proxy);
+            if (GlobalProp.getTestIdAttribute() != null) {
+                playwright.selectors().setTestIdAttribute(GlobalProp.getTestIdAttribute());
+            }
+            Browser browser;
+            switch (String.valueOf(browserType)) {
+                case "FF":
+                    browser = playwright.firefox().launch(new BrowserType.LaunchOptions().setArgs(args).setHeadless(GlobalProp.isHeadless()));
+                    break;
+                default: //chrome
+                    browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setArgs(args).setHeadless(GlobalProp.isHeadless()));
+                    break;
+            }
+            return new LaunchedBrowser(playwright, browser, browserType, BrowserPool.key(browserType, GlobalProp.isHeadless(), proxy, locale));
+        } catch (RuntimeException e) {
+            playwright.close();
+            throw e;
+        }
+    }
 
-                if (!GlobalProp.getRecordVideo().equals("never")) {
-                    contextOptions.setRecordVideoDir(Paths.get(GlobalProp.getVideoFolder()));
-                }
-                if (GlobalProp.isBrowserPrivate()) {
-                    contextOptions.setStorageStatePath(Paths.get("")); // Mode incognito
-                }
+    /**
+     * Ouvre un nouveau contexte et sa page sur un navigateur déjà lancé.
+     *
+     * @param testContext Le contexte de test.
+     * @param browser Le navigateur.
+     * @param locale La langue par défaut du navigateur.
+     * @param credentialUser Le nom d'utilisateur pour les identifiants HTTP.
+     * @param credentialPassword Le mot de passe pour les identifiants HTTP.
+     */
+    public static void openContext(TestContext testContext, Browser browser, String locale, String credentialUser, String credentialPassword) {
+        Browser.NewContextOptions contextOptions = new Browser.NewContextOptions()
+                .setAcceptDownloads(true) // Autoriser les téléchargements
+                .setViewportSize(GlobalProp.getBrowserWidth(), GlobalProp.getBrowserHeigth())
+                .setIgnoreHTTPSErrors(true)
+                .setLocale(locale); // Ignorer les erreurs de certificat
 
-                BrowserContext browserContext = browser.newContext(credentialUser == null ? contextOptions : contextOptions.setHttpCredentials(credentialUser, credentialPassword));
-                browserContext.clearCookies();
-                browserContext.setDefaultTimeout(Duration.ofSeconds(GlobalProp.getPageLoadTimeOut()).toMillis());
-                browserContext.setDefaultNavigationTimeout(Duration.ofSeconds(GlobalProp.getPageLoadTimeOut()).toMillis());
+        if (!GlobalProp.getRecordVideo().equals("never")) {
+            contextOptions.setRecordVideoDir(Paths.get(GlobalProp.getVideoFolder()));
+        }
+        if (GlobalProp.isBrowserPrivate()) {
+            contextOptions.setStorageStatePath(Paths.get("")); // Mode incognito
+        }
 
-                Page page = browserContext.newPage();
+        BrowserContext browserContext = browser.newContext(credentialUser == null ? contextOptions : contextOptions.setHttpCredentials(credentialUser, credentialPassword));
+        browserContext.clearCookies();
+        browserContext.setDefaultTimeout(Duration.ofSeconds(GlobalProp.getPageLoadTimeOut()).toMillis());
+        browserContext.setDefaultNavigationTimeout(Duration.ofSeconds(GlobalProp.getPageLoadTimeOut()).toMillis());
 
-                testContext.setPlaywright(playwright);
-                testContext.setBrowser(browser);
-                testContext.setBrowserContext(browserContext);
-                testContext.setPage(page);
-                testContext.getReport().setPage(page);
+        Page page = browserContext.newPage();
 
-                browserOk = true;
-            } catch (Exception e) {
-                log.error("Échec du démarrage du navigateur, nouvelle tentative", e);
-            }
-        }
+        testContext.setBrowserContext(browserContext);
+        testContext.setPage(page);
+        testContext.getReport().setPage(page);
     }
 
     /**
@@ -8,15 +8,21 @@ import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import bcx.automation.util.data.DataUtil;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.microsoft.playwright.options.AriaRole;
 import com.microsoft.playwright.options.LoadState;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -27,6 +33,32 @@ import java.util.regex.Pattern;
 @Slf4j
 public class BaseElement {
     public static final String ELEMENT_NON_TROUVE = "élément non trouvé";
+    private static final Pattern SELECTOR_PATTERN = Pattern.compile(
+            "role=(\\w+)|text=\\\"(.*?)\\\"i|label=\\\"(.*?)\\\"i|attr=\\[placeholder=\\\"(.*?)\\\"i\\]|" +
+                    "attr=\\[alt=\\\"(.*?)\\\"i\\]|attr=\\[title=\\\"(.*?)\\\"i\\]|attr=\\[data-test-id=\\\"(.*?)\\\"]|Locator=(.+)"
+    );
+    private static final int RESOLVED_LOCATORS_MAX_SIZE = 32;
+    // Chaînes de sélecteurs déjà analysées, partagées entre les threads
+    private static final Cache<String, List<String>[]> parsedSelectors = CacheBuilder.newBuilder().maximumSize(2000).build();
+    // Table de résolution des types de locators, sans réflexion
+    private static final Map<String, BiFunction<Page, String, Locator>> pageLocators = Map.of(
+            "getByRole", (p, s) -> p.getByRole(AriaRole.valueOf(s.toUpperCase())),
+            "getByText", Page::getByText,
+            "getByLabel", Page::getByLabel,
+            "getByPlaceholder", Page::getByPlaceholder,
+            "getByAltText", Page::getByAltText,
+            "getByTitle", Page::getByTitle,
+            "getByTestId", Page::getByTestId,
+            "locator", Page::locator);
+    private static final Map<String, BiFunction<Locator, String, Locator>> containerLocators = Map.of(
+            "getByRole", (l, s) -> l.getByRole(AriaRole.valueOf(s.toUpperCase())),
+            "getByText", Locator::getByText,
+            "getByLabel", Locator::getByLabel,
+            "getByPlaceholder", Locator::getByPlaceholder,
+            "getByAltText", Locator::getByAltText,
+            "getByTitle", Locator::getByTitle,
+            "getByTestId", Locator::getByTestId,
+            "locator", Locator::locator);
 
     @Getter
     private final TestContext testContext;
@@ -48,6 +80,16 @@ public class BaseElement {
     @Getter
     private String potentialType;
     private String potentialElement;
+    // État de l'élément sondé lors de la dernière recherche
+    @Getter
+    private ElementProbe probe;
+    // Locators déjà résolus pour ce conteneur et ces valeurs injectées (LRU)
+    private final Map<List<Object>, Locator[]> resolvedLocators = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Locator[]> eldest) {
+            return size() > RESOLVED_LOCATORS_MAX_SIZE;
+        }
+    };
 
     /**
      * Constructeur de la classe BaseElement.
@@ -63,7 +105,7 @@ public class BaseElement {
         this.name = name;
         this.initName = name;
         this.locator = locator;
-        List<String>[] typeAndSelector = extractSelectorsWithTypes(locator.toString());
+        List<String>[] typeAndSelector = getParsedSelectors(locator.toString());
         this.locatorType = typeAndSelector[0];
         this.selector = typeAndSelector[1];
         this.container = page;
@@ -112,12 +154,18 @@ public class BaseElement {
      * @return L'instance courante de BaseElement.
      */
     public BaseElement injectValues(Map<String, String> values) {
-        List<String> selector = new ArrayList<>();
-        for (int i = 0; i < this.selector.size(); i++) {
-            selector.add(i == this.selector.size() - 1 ? DataUtil.replacePlaceholders(this.selector.get(i), values) : this.selector.get(i));
+        List<Object> key = Arrays.asList(container, new HashMap<>(values));
+        Locator[] resolved = resolvedLocators.get(key);
+        if (resolved == null) {
+            List<String> selector = new ArrayList<>();
+            for (int i = 0; i < this.selector.size(); i++) {
+                selector.add(i == this.selector.size() - 1 ? DataUtil.replacePlaceholders(this.selector.get(i), values) : this.selector.get(i));
+            }
+            resolved = new Locator[]{getLocatorFromSelector(this.locatorType, selector, false), getLocatorFromSelector(this.locatorType, selector, true)};
+            resolvedLocators.put(key, resolved);
         }
-        this.locator = getLocatorFromSelector(this.locatorType, selector, false);
-        this.locatorInContainer = getLocatorFromSelector(this.locatorType, selector, true);
+        this.locator = resolved[0];
+        this.locatorInContainer = resolved[1];
         this.name = DataUtil.replacePlaceholders(this.initName, values);
         return this;
     }
@@ -129,13 +177,20 @@ public class BaseElement {
      * @return L'élément trouvé ou null.
      */
     public Object find(boolean findPotentialElement) {
-        Loader.waitNotVisible();
-        report.setCurrentElement(null);
+        Loader.waitNotVisible(this.page);
+        report.setCurrentLocator(null);
         report.setPage(this.page);
+        this.probe = null;
         try {
-            getLocatorInContainer().first().waitFor(new Locator.WaitForOptions().setTimeout(GlobalProp.getTimeOut() * 1000));
-            report.setCurrentElement(getLocatorInContainer().first().elementHandle());
-            return getLocatorInContainer();
+            Locator target = getLocatorInContainer();
+            ElementProbe snapshot = ElementProbe.of(target);
+            if (!snapshot.isVisible()) {
+                target.first().waitFor(new Locator.WaitForOptions().setTimeout(GlobalProp.getTimeOut() * 1000));
+                snapshot = ElementProbe.of(target);
+            }
+            this.probe = snapshot;
+            report.setCurrentLocator(target.first());
+            return target;
         } catch (Exception error) {
             try {
                 Object elementProbable = findPotentialElement(findPotentialElement);
@@ -158,9 +213,10 @@ public class BaseElement {
     public Object findPotentialElement(boolean findPotentialElement) {
         if (container != page) {
             try {
-                int nbElem = locator.count();
-                if (nbElem == 1) {
-                    report.setCurrentElement(locator.elementHandle());
+                ElementProbe snapshot = ElementProbe.of(locator);
+                if (snapshot.getCount() == 1) {
+                    this.probe = snapshot;
+                    report.setCurrentLocator(locator);
                     return locator;
                 }
             } catch (Exception ignore) {
@@ -211,7 +267,7 @@ public class BaseElement {
     public boolean isVisible() {
         Object element = findFirst(false);
         if (element instanceof Locator) {
-            return ((Locator) element).isVisible();
+            return probe != null ? probe.isVisible() : ((Locator) element).isVisible();
         } else if (element instanceof ElementHandle) {
             return ((ElementHandle) element).isVisible();
         }
@@ -226,7 +282,7 @@ public class BaseElement {
     public boolean isEnabled() {
         Object element = findFirst(false);
         if (element instanceof Locator) {
-            return ((Locator) element).isEnabled();
+            return probe != null ? probe.isEnabled() : ((Locator) element).isEnabled();
         } else if (element instanceof ElementHandle) {
             return ((ElementHandle) element).isEnabled();
         }
@@ -239,7 +295,13 @@ public class BaseElement {
      * @return Vrai si l'élément est requis, faux sinon.
      */
     public boolean isRequired() {
-        return getAttribute("required") != null;
+        Object element = findFirst(true);
+        if (element instanceof Locator) {
+            return probe != null ? probe.isRequired() : ((Locator) element).getAttribute("required") != null;
+        } else if (element instanceof ElementHandle) {
+            return ((ElementHandle) element).getAttribute("required") != null;
+        }
+        return false;
     }
 
     /**
@@ -250,7 +312,7 @@ public class BaseElement {
     public String getTagName() {
         Object element = findFirst(false);
         if (element instanceof Locator) {
-            return ((Locator) element).evaluate("el => el.tagName").toString();
+            return probe != null ? probe.getTagName() : ((Locator) element).evaluate("el => el.tagName").toString();
         } else if (element instanceof ElementHandle) {
             return ((ElementHandle) element).evaluate("el => el.tagName").toString();
         }
@@ -265,7 +327,7 @@ public class BaseElement {
     public int count() {
         Object element = find(false);
         if (element instanceof Locator) {
-            return ((Locator) element).count();
+            return probe != null ? probe.getCount() : ((Locator) element).count();
         } else if (element instanceof ElementHandle) {
             return 1;
         }
@@ -280,7 +342,7 @@ public class BaseElement {
     public String getValue() {
         Object element = findFirst(true);
         if (element instanceof Locator) {
-            return ((Locator) element).inputValue();
+            return probe != null && probe.getValue() != null ? probe.getValue() : ((Locator) element).inputValue();
         } else if (element instanceof ElementHandle) {
             return ((ElementHandle) element).getAttribute("value");
         }
@@ -565,13 +627,14 @@ public class BaseElement {
      */
     private Locator getLocatorFromSelector(String typeLocator, String selector, boolean inContainer) {
         Object context = inContainer ? container : page;
-
-        try {
-            Method method = context.getClass().getMethod(typeLocator, String.class);
-            return (Locator) method.invoke(context, selector);
-        } catch (Exception e) {
-            throw new RuntimeException("Invalid locator type: " + typeLocator, e);
+        if (context instanceof Locator) {
+            BiFunction<Locator, String, Locator> resolver = containerLocators.get(typeLocator);
+            if (resolver == null) throw new RuntimeException("Invalid locator type: " + typeLocator);
+            return resolver.apply((Locator) context, selector);
         }
+        BiFunction<Page, String, Locator> resolver = pageLocators.get(typeLocator);
+        if (resolver == null) throw new RuntimeException("Invalid locator type: " + typeLocator);
+        return resolver.apply((Page) context, selector);
     }
 
     /**
@@ -631,17 +694,38 @@ public class BaseElement {
      * @return Une liste contenant les types de locators et les sélecteurs.
      */
     public static List<String>[] extractSelectorsWithTypes(String locatorString) {
+        List<String>[] parsed = getParsedSelectors(locatorString);
+        return new List[]{new ArrayList<>(parsed[0]), new ArrayList<>(parsed[1])};
+    }
+
+    /**
+     * Renvoie les types de locators et sélecteurs analysés, depuis le cache partagé.
+     *
+     * @param locatorString La chaîne de locator.
+     * @return Une liste non modifiable des types de locators et une des sélecteurs.
+     */
+    private static List<String>[] getParsedSelectors(String locatorString) {
+        List<String>[] parsed = parsedSelectors.getIfPresent(locatorString);
+        if (parsed == null) {
+            parsed = parseSelectorsWithTypes(locatorString);
+            parsedSelectors.put(locatorString, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Analyse une chaîne de locator en types de locators et sélecteurs.
+     *
+     * @param locatorString La chaîne de locator.
+     * @return Une liste non modifiable des types de locators et une des sélecteurs.
+     */
+    private static List<String>[] parseSelectorsWithTypes(String locatorString) {
         List<String> resultType = new ArrayList<>();
         List<String> resultLocator = new ArrayList<>();
         List<String> parts = splitSafely(locatorString);
 
-        Pattern pattern = Pattern.compile(
-                "role=(\\w+)|text=\\\"(.*?)\\\"i|label=\\\"(.*?)\\\"i|attr=\\[placeholder=\\\"(.*?)\\\"i\\]|" +
-                        "attr=\\[alt=\\\"(.*?)\\\"i\\]|attr=\\[title=\\\"(.*?)\\\"i\\]|attr=\\[data-test-id=\\\"(.*?)\\\"]|Locator=(.+)"
-        );
-
         for (String part : parts) {
-            Matcher matcher = pattern.matcher(part.trim());
+            Matcher matcher = SELECTOR_PATTERN.matcher(part.trim());
             if (matcher.find()) {
                 for (int i = 1; i <= matcher.groupCount(); i++) {
                     if (matcher.group(i) != null) {
@@ -653,7 +737,7 @@ public class BaseElement {
                 }
             }
         }
-        return new List[]{resultType, resultLocator};
+        return new List[]{List.copyOf(resultType), List.copyOf(resultLocator)};
     }
 
     /**
@@ -0,0 +1,79 @@
+package bcx.automation.playwright.element;
+
+import com.microsoft.playwright.Locator;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Instantané de l'état d'un élément, obtenu en un seul aller-retour avec le navigateur :
+ * existence, nombre d'occurrences, visibilité, activation, caractère requis, balise et valeur du premier élément.
+ */
+@Getter
+public class ElementProbe {
+    private static final ElementProbe ABSENT = new ElementProbe(0, false, false, false, null, null);
+    private static final String PROBE_SCRIPT = "els => {" +
+            "const el = els[0];" +
+            "if (!el) return { count: 0 };" +
+            "const style = window.getComputedStyle(el);" +
+            "const rect = el.getBoundingClientRect();" +
+            "const isField = ['INPUT', 'TEXTAREA', 'SELECT'].includes(el.tagName);" +
+            "return {" +
+            "count: els.length," +
+            "visible: rect.width > 0 && rect.height > 0 && style.visibility !== 'hidden'," +
+            "enabled: !(el.disabled || el.closest('fieldset[disabled]') || el.getAttribute('aria-disabled') === 'true')," +
+            "required: el.hasAttribute('required')," +
+            "tagName: el.tagName," +
+            "value: isField ? el.value : null" +
+            "};" +
+            "}";
+
+    private final int count;
+    private final boolean visible;
+    private final boolean enabled;
+    private final boolean required;
+    private final String tagName;
+    private final String value;
+
+    private ElementProbe(int count, boolean visible, boolean enabled, boolean required, String tagName, String value) {
+        this.count = count;
+        this.visible = visible;
+        this.enabled = enabled;
+        this.required = required;
+        this.tagName = tagName;
+        this.value = value;
+    }
+
+    /**
+     * Sonde les éléments correspondant au locator, sans attendre leur apparition.
+     *
+     * @param locator Le locator à sonder.
+     * @return L'instantané de l'état du premier élément.
+     */
+    public static ElementProbe of(Locator locator) {
+        Object result = locator.evaluateAll(PROBE_SCRIPT);
+        if (!(result instanceof Map)) {
+            return ABSENT;
+        }
+        Map<?, ?> map = (Map<?, ?>) result;
+        int count = map.get("count") instanceof Number ? ((Number) map.get("count")).intValue() : 0;
+        if (count == 0) {
+            return ABSENT;
+        }
+        return new ElementProbe(count,
+                Boolean.TRUE.equals(map.get("visible")),
+                Boolean.TRUE.equals(map.get("enabled")),
+                Boolean.TRUE.equals(map.get("required")),
+                (String) map.get("tagName"),
+                map.get("value") == null ? null : String.valueOf(map.get("value")));
+    }
+
+    /**
+     * Indique si au moins un élément correspond au locator.
+     *
+     * @return Vrai si l'élément existe.
+     */
+    public boolean exists() {
+        return count > 0;
+    }
+}
@@ -4,6 +4,7 @@ import bcx.automation.test.TestContext;
 import bcx.automation.util.TimeWait;
 import com.microsoft.playwright.Locator;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import bcx.automation.report.Reporter;
@@ -11,9 +12,16 @@ import bcx.automation.util.data.DataUtil;
 import bcx.automation.util.data.DoubleUtil;
 import bcx.automation.properties.GlobalProp;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 /**
  * classe permettant de gérer les action sur des grilles de type table/thead/tboby
@@ -35,15 +43,70 @@ public class Grid extends BaseElement {
     public static final String BUILT_VALUES = "{BUILT_VALUES}";
     public static final String ATTR_ACTION = "{ATTR_ACTION}";
     private static final String COL_NOT_FOUND = "col not found";
+    private static final String ROW_NOT_FOUND = "row not found";
     public static final String SUR_COL = " sur col ";
     public static final String CELLULE = "cellule ";
     public static final String CONTENANT = " contenant ";
     public static final String NON_TROUVEE = " non trouvée";
     public static final String COL = " col ";
     public static final String TBODY_TR_TD = "//tbody/tr[td][";
+    private static final String HEADER_SCRIPT = "(el, knownVersion) => {" +
+            "if (!el.__bcxHeaderId) {" +
+            "el.__bcxHeaderId = Math.random().toString(36).slice(2);" +
+            "el.__bcxHeaderCount = 0;" +
+            "const inHead = n => { const e = n.nodeType === 1 ? n : n.parentElement; return !!e && (e.tagName === 'THEAD' || !!e.closest('thead')); };" +
+            "new MutationObserver(mutations => {" +
+            "if (mutations.some(m => inHead(m.target) || [...m.addedNodes, ...m.removedNodes].some(n => n.nodeName === 'THEAD'))) el.__bcxHeaderCount++;" +
+            "}).observe(el, { subtree: true, childList: true, characterData: true, attributes: true });" +
+            "}" +
+            "const version = el.__bcxHeaderId + ':' + el.__bcxHeaderCount;" +
+            "if (version === knownVersion) return { version: version };" +
+            "return { version: version, headers: Array.from(el.querySelectorAll('thead tr th')).map(th => (th.innerText || '').trim()), headerRowNum: el.querySelectorAll('thead tr').length };" +
+            "}";
+    private static final int SCAN_MAX_STEPS = 10000;
+    private static final int SCAN_SEEN_KEYS = 5000;
+    private static final int SCAN_IDLE_STEPS = 3;
+    private static final String SCAN_SCRIPT = "(el, args) => {" +
+            "const text = e => (e.innerText || '').trim();" +
+            "const cells = tr => Array.from(tr.children).filter(c => c.tagName === 'TD');" +
+            "const top = el.getBoundingClientRect().top;" +
+            "const rows = Array.from(el.querySelectorAll('tbody > tr')).filter(tr => cells(tr).length > 0).map((tr, i) => {" +
+            "const attrs = {};" +
+            "for (const a of tr.attributes) attrs[a.name] = a.value;" +
+            "return { key: args.keyAttr ? tr.getAttribute(args.keyAttr) : null, pos: i, y: Math.round(tr.getBoundingClientRect().top - top), text: text(tr), cells: cells(tr).map(text), attrs: attrs };" +
+            "});" +
+            "let moved = false;" +
+            "if (args.scroll) {" +
+            "let s = el.parentElement;" +
+            "while (s && s !== document.body && !(s.scrollHeight > s.clientHeight && /(auto|scroll)/.test(getComputedStyle(s).overflowY))) s = s.parentElement;" +
+            "if (!s || s === document.body) s = document.scrollingElement || document.documentElement;" +
+            "const before = s.scrollTop;" +
+            "s.scrollTop = before + Math.max(s.clientHeight - 20, 50);" +
+            "moved = s.scrollTop !== before;" +
+            "}" +
+            "return { rows: rows, moved: moved };" +
+            "}";
 
     private final HashMap<String, Integer> headerNamePosition = new HashMap<>();
     private int headerRowNum = 0;
+    // version des entêtes lue dans la page (identifiant de la table + compteur de mutations du thead)
+    private String headerVersion;
+    /**
+     * attribut de tr identifiant une ligne de manière unique lors d'un parcours (ex : data-id, aria-rowindex), sinon la position
+     * de la ligne (rang dans la page d'une table paginée, décalage vertical dans la table sinon)
+     */
+    @Setter
+    private String rowKeyAttribute;
+    /**
+     * bouton "page suivante" d'une table paginée, sinon le parcours fait défiler la table
+     */
+    @Setter
+    private BaseElement nextPageButton;
+    /**
+     * pause en ms entre deux étapes de parcours, le temps que les lignes suivantes soient rendues
+     */
+    @Setter
+    private int scanPauseMs = 200;
 
 
     @Getter
@@ -105,30 +168,69 @@ public class Grid extends BaseElement {
      * @return
      */
     public int getColNumber(String headerName) {
-        int headersCount = tableHeaders.count();
-        for (int i = 0; i < headersCount; i++) {
-                String headerText = tableHeaders.getLocator().nth(i).innerText();
-            if (headerText.equals(headerName)) {
-                return i + 1;
-            }
+        Integer colNumber = getHeaderPositions().get(headerName);
+        if (colNumber != null) {
+            return colNumber;
         }
         this.getTestContext().getReport().log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "Colonne " + headerName + NON_TROUVEE);
         return 0;
     }
 
 
+    /**
+     * renvoi les positions des entêtes, relues seulement si le thead a changé depuis la dernière lecture
+     * (un MutationObserver posé sur la table incrémente sa version à chaque modification du thead)
+     * @return map nom d'entête -> numéro de colonne
+     */
+    private Map<String, Integer> getHeaderPositions() {
+        try {
+            Map<?, ?> result = (Map<?, ?>) getLocatorInContainer().first().evaluate(HEADER_SCRIPT, headerVersion == null ? "" : headerVersion,
+                    new Locator.EvaluateOptions().setTimeout(GlobalProp.getTimeOut() * 1000.0));
+            if (result.get("headers") instanceof List) {
+                headerNamePosition.clear();
+                List<?> headers = (List<?>) result.get("headers");
+                for (int i = 0; i < headers.size(); i++) {
+                    headerNamePosition.putIfAbsent(String.valueOf(headers.get(i)), i + 1);
+                }
+                headerRowNum = ((Number) result.get("headerRowNum")).intValue();
+                headerVersion = String.valueOf(result.get("version"));
+            }
+        } catch (Exception e) {
+            headerNamePosition.clear();
+            headerRowNum = 0;
+            headerVersion = null;
+        }
+        return headerNamePosition;
+    }
+
+    /**
+     * renvoi le numéro de la ligne d'entête contenant les noms de colonnes (dernière ligne du thead), 0 si pas de thead
+     * @return numéro de la ligne d'entête
+     */
+    public int getHeaderRowNum() {
+        getHeaderPositions();
+        return headerRowNum;
+    }
+
     /**
      * renvoi le premier numéro de ligne contenant le texte subStringInRow
      * @param subStringInRow
      * @return
      */
     public int getRowNumber(String subStringInRow) {
-        int rowCount = tableRows.count();
-        for (int i = 0; i < rowCount; i++) {
-            String rowText = tableRows.getLocator().nth(i).innerText();
-            if (rowText.contains(subStringInRow)) {
-                return i + 1;
-            }
+        return getRowNumber(snapshot(), subStringInRow);
+    }
+
+    /**
+     * renvoi le premier numéro de ligne contenant le texte subStringInRow, recherché dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs recherches
+     * @param subStringInRow
+     * @return
+     */
+    public int getRowNumber(GridSnapshot snapshot, String subStringInRow) {
+        int rowNumber = snapshot.getRowNumber(subStringInRow);
+        if (rowNumber > 0) {
+            return rowNumber;
         }
         this.getTestContext().getReport().log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "Ligne contenant " + subStringInRow + NON_TROUVEE);
         return 0;
@@ -151,14 +253,22 @@ public class Grid extends BaseElement {
      * @return
      */
     public int getRowNumber(String subStringInCell, int colNumber) {
+        return getRowNumber(colNumber > 0 ? snapshot() : GridSnapshot.EMPTY, subStringInCell, colNumber);
+    }
+
+    /**
+     * renvoi le premier numéro de ligne contenant le texte subStringInCell dans la colonne numéro colNumber,
+     * recherché dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs recherches
+     * @param subStringInCell
+     * @param colNumber
+     * @return
+     */
+    public int getRowNumber(GridSnapshot snapshot, String subStringInCell, int colNumber) {
         if (colNumber>0) {
-            BaseElement oneCol = oneColumnByNum.injectValues(COL_NUMBER, String.valueOf(colNumber));
-            int rowCount = oneCol.count();
-            for (int i = 0; i < rowCount; i++) {
-                String rowText = oneCol.getLocator().nth(i).innerText();
-                if (rowText.contains(subStringInCell)) {
-                    return i + 1;
-                }
+            int rowNumber = snapshot.getRowNumber(subStringInCell, colNumber);
+            if (rowNumber > 0) {
+                return rowNumber;
             }
         }
        this.getTestContext().getReport().log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "Ligne contenant " + subStringInCell + " dans la colonne "  + colNumber + NON_TROUVEE);
@@ -171,7 +281,142 @@ public class Grid extends BaseElement {
      * @return nombre de ligne
      */
     public int getRowCount() {
-        return tableRows.count();
+        return snapshot().getRowCount();
+    }
+
+    /**
+     * Lit toute la table (entêtes, cellules, footer, attributs des lignes) en un seul appel au navigateur,
+     * après avoir attendu jusqu'au timeOut qu'au moins une ligne soit affichée (tbody alimenté en asynchrone).
+     * Les recherches et lectures peuvent ensuite être faites en mémoire sur la copie renvoyée,
+     * à passer aux méthodes qui l'acceptent pour éviter une relecture de la table par recherche.
+     * @return la copie de la table, vide si la table est introuvable
+     */
+    public GridSnapshot snapshot() {
+        Loader.waitNotVisible(this.getPage());
+        Locator table = getLocatorInContainer().first();
+        try {
+            table.locator("tbody tr").first().waitFor(new Locator.WaitForOptions().setTimeout(GlobalProp.getTimeOut() * 1000.0));
+        } catch (Exception e) {
+            // table vide : lue telle quelle
+        }
+        try {
+            return GridSnapshot.read(table, GlobalProp.getTimeOut() * 1000.0);
+        } catch (Exception e) {
+            log.info("Table " + getName() + " illisible : " + e.getMessage());
+            return GridSnapshot.EMPTY;
+        }
+    }
+
+    /**
+     * Parcourt toute la table, y compris les lignes non rendues d'une table virtualisée, à défilement infini ou paginée :
+     * à chaque étape, seules les nouvelles lignes rendues sont transmises à match, dédoublonnées par clé de ligne
+     * (rowKeyAttribute, ou à défaut la position de la ligne : des lignes identiques sont donc toutes transmises).
+     * Le parcours s'arrête dès que match renvoie vrai. La mémoire reste bornée (fenêtre des dernières clés vues).
+     * @param match condition d'arrêt évaluée sur chaque nouvelle ligne
+     * @return la première ligne vérifiant match, null si aucune
+     */
+    public GridRow scanRows(Predicate<GridRow> match) {
+        boolean paginate = nextPageButton != null;
+        Set<String> seenKeys = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > SCAN_SEEN_KEYS;
+            }
+        });
+        Map<String, Object> args = Map.of("keyAttr", rowKeyAttribute == null ? "" : rowKeyAttribute, "scroll", !paginate);
+        int index = 0;
+        int page = 1;
+        int idleSteps = 0;
+        Loader.waitNotVisible(this.getPage());
+        for (int step = 0; step < SCAN_MAX_STEPS && idleSteps < SCAN_IDLE_STEPS; step++) {
+            Map<?, ?> result = (Map<?, ?>) getLocatorInContainer().first().evaluate(SCAN_SCRIPT, args);
+            boolean newRows = false;
+            for (Object rowObject : (List<?>) result.get("rows")) {
+                Map<?, ?> row = (Map<?, ?>) rowObject;
+                String text = String.valueOf(row.get("text"));
+                String key;
+                if (row.get("key") != null) {
+                    key = String.valueOf(row.get("key"));
+                } else if (paginate) {
+                    key = "page:" + page + ":" + row.get("pos");
+                } else {
+                    key = "y:" + row.get("y");
+                }
+                if (seenKeys.add(key)) {
+                    newRows = true;
+                    GridRow gridRow = toGridRow(++index, key, text, row);
+                    if (match.test(gridRow)) {
+                        return gridRow;
+                    }
+                }
+            }
+            boolean moved = paginate ? goToNextPage() : Boolean.TRUE.equals(result.get("moved"));
+            if (paginate && !moved) {
+                break;
+            }
+            if (paginate) {
+                page++;
+            }
+            idleSteps = newRows || moved ? 0 : idleSteps + 1;
+            this.getPage().waitForTimeout(scanPauseMs);
+            Loader.waitNotVisible(this.getPage());
+        }
+        return null;
+    }
+
+    /**
+     * Recherche par parcours incrémental la première ligne contenant subStringInRow.
+     * @param subStringInRow texte recherché
+     * @return la ligne trouvée, null sinon
+     */
+    public GridRow scanRowContaining(String subStringInRow) {
+        GridRow row = scanRows(r -> r.contains(subStringInRow));
+        if (row == null) {
+            this.getTestContext().getReport().log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "Ligne contenant " + subStringInRow + NON_TROUVEE);
+        }
+        return row;
+    }
+
+    /**
+     * Compte par parcours incrémental toutes les lignes de données de la table, rendues ou non.
+     * @return nombre de lignes
+     */
+    public int scanRowCount() {
+        AtomicInteger count = new AtomicInteger();
+        scanRows(r -> {
+            if (!r.contains("Aucun résultat")) count.incrementAndGet();
+            return false;
+        });
+        return count.get();
+    }
+
+    /**
+     * Passe à la page suivante si le bouton est visible et actif.
+     * @return true si la page a changé
+     */
+    private boolean goToNextPage() {
+        Locator next = nextPageButton.getLocatorInContainer().first();
+        try {
+            if (next.count() == 0 || !next.isVisible() || !next.isEnabled()) {
+                return false;
+            }
+            next.click();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static GridRow toGridRow(int index, String key, String text, Map<?, ?> row) {
+        List<String> cells = new ArrayList<>();
+        if (row.get("cells") instanceof List) {
+            for (Object cell : (List<?>) row.get("cells")) cells.add(String.valueOf(cell));
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        if (row.get("attrs") instanceof Map) {
+            ((Map<?, ?>) row.get("attrs")).forEach((k, v) -> attributes.put(String.valueOf(k), String.valueOf(v)));
+        }
+        return new GridRow(index, key, text, cells, attributes);
     }
 
     /**
@@ -207,22 +452,18 @@ public class Grid extends BaseElement {
      * @return true si la ligne existe sinon false
      */
     public boolean columnContains(String subStringInCell, int columnNumber) {
-        boolean foundRow = false;
-        try {
-            if (columnNumber>0) {
-                BaseElement oneCol = oneColumnByNum.injectValues(COL_NUMBER, String.valueOf(columnNumber));
-                for (int i = 0; i < oneCol.count(); i++) {
-                    String rowText = oneCol.getLocator().nth(i).innerText();
-                    if (rowText.contains(subStringInCell)) {
-                        foundRow = true;
-                        break;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // on passe à la suite
-        }
-        return foundRow;
+        return columnNumber > 0 && columnContains(snapshot(), subStringInCell, columnNumber);
+    }
+
+    /**
+     * Indique si une ligne d'une copie de la table déjà lue contient une valeur dans une colonne.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs recherches
+     * @param subStringInCell valeur que l'on cherche dans la colonne columnNumber
+     * @param columnNumber numero de la colonne où on recherche la valeur
+     * @return true si la ligne existe sinon false
+     */
+    public boolean columnContains(GridSnapshot snapshot, String subStringInCell, int columnNumber) {
+        return columnNumber > 0 && snapshot.columnContains(subStringInCell, columnNumber);
     }
 
 
@@ -235,6 +476,17 @@ public class Grid extends BaseElement {
         return oneRowByNum.injectValues(ROW_NUMBER, String.valueOf(rowNum)).getValue();
     }
 
+    /**
+     * renvoi le texte complet de la ligne rowNum d'une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param rowNum
+     * @return le texte de la ligne, sinon "row not found"
+     */
+    public String getRowValue(GridSnapshot snapshot, int rowNum) {
+        String value = snapshot.getRowValue(rowNum);
+        return value == null ? ROW_NOT_FOUND : value;
+    }
+
     /**
      * renvoi l'élément TR de la ligne rowNum
      * @param rowNum
@@ -362,6 +614,18 @@ public class Grid extends BaseElement {
         return DataUtil.normalizeSpace(getCell(subStringInRow, columnNumber).getValue());
     }
 
+    /**
+     * recupère la valeur d'une cellule de la colonne columnNumber de la ligne contenant la chaine subStringInRow,
+     * lue dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs lectures
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param columnNumber colonne de la cellule dont on veut la valeur
+     * @return la valeur, sinon "row not found" ou COL_NOT_FOUND
+     */
+    public String getCellValue(GridSnapshot snapshot, String subStringInRow, int columnNumber) {
+        return getCellValue(snapshot, getRowNumber(snapshot, subStringInRow), columnNumber);
+    }
+
 
     /**
      * recupère la valeur d'une cellule de la colonne headerName de la ligne de la table contenant la chaine subStringInRow.
@@ -410,6 +674,17 @@ public class Grid extends BaseElement {
         }
         return DataUtil.normalizeSpace(value);
     }
+
+    /**
+     * recupère la valeur de la cellule de la colonne columnNumber du footer d'une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param columnNumber colonne de la cellule dont on veut la valeur
+     * @return la valeur, sinon COL_NOT_FOUND
+     */
+    public String getFooterCellValue(GridSnapshot snapshot, int columnNumber) {
+        String value = snapshot.getFooterCellValue(columnNumber);
+        return value == null ? COL_NOT_FOUND : value;
+    }
     /**
      * indique si la valeur de la colonne headerName de la ligne contenant subStringInRow vaut cellValue.
      * @param subStringInRow chaine pour identifier la ligne
@@ -433,6 +708,19 @@ public class Grid extends BaseElement {
         return value.equals(DataUtil.normalizeSpace(cellValue));
     }
 
+    /**
+     * indique si la valeur de la colonne colNumber de la ligne contenant subStringInRow vaut cellValue,
+     * dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     * @return true si égalité, false sinon
+     */
+    public boolean cellValueEquals(GridSnapshot snapshot, String subStringInRow, int colNumber, String cellValue) {
+        return getCellValue(snapshot, subStringInRow, colNumber).equals(DataUtil.normalizeSpace(cellValue));
+    }
+
     /**
      * indique si la valeur de la colonne headerName de la ligne contenant subStringInRow contient cellValue.
      * @param subStringInRow chaine pour identifier la ligne
@@ -457,6 +745,19 @@ public class Grid extends BaseElement {
         return value.contains(DataUtil.normalizeSpace(cellValue));
     }
 
+    /**
+     * indique si la valeur de la colonne colNumber de la ligne contenant subStringInRow contient cellValue,
+     * dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     * @return true si contenue, false sinon
+     */
+    public boolean cellValueContains(GridSnapshot snapshot, String subStringInRow, int colNumber, String cellValue) {
+        return getCellValue(snapshot, subStringInRow, colNumber).contains(DataUtil.normalizeSpace(cellValue));
+    }
+
     /**
      * recupère la valeur d'une cellule de la colonne cellToReadHeaderName de la ligne de la table dont la colonne subStringHeaderName contient la chaine subStringInCell.
      * @param subStringInCell chaine pour identifier la ligne
@@ -479,6 +780,19 @@ public class Grid extends BaseElement {
         return DataUtil.normalizeSpace(getCell(subStringInCell, colNumber, colNumberCellToRead).getValue());
     }
 
+    /**
+     * recupère la valeur d'une cellule de la colonne colNumberCellToRead de la ligne dont la colonne colNumber contient
+     * la chaine subStringInCell, dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param subStringInCell chaine pour identifier la ligne
+     * @param colNumber colonne de la ligne qui doit contenir subStringInCell
+     * @param colNumberCellToRead colonne de la cellule dont on veut la valeur
+     * @return la valeur, sinon "row not found" ou COL_NOT_FOUND
+     */
+    public String getCellValue(GridSnapshot snapshot, String subStringInCell, int colNumber, int colNumberCellToRead) {
+        return getCellValue(snapshot, getRowNumber(snapshot, subStringInCell, colNumber), colNumberCellToRead);
+    }
+
     /**
      * recupère la valeur de la cellule ligne rowNumber, colonne colNumber.
      * @param rowNumber
@@ -489,6 +803,24 @@ public class Grid extends BaseElement {
         return DataUtil.normalizeSpace(getCell(rowNumber, colNumber).getValue());
     }
 
+    /**
+     * recupère la valeur de la cellule ligne rowNumber, colonne colNumber d'une copie de la table déjà lue.
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param rowNumber
+     * @param colNumber
+     * @return la valeur, sinon "row not found" ou COL_NOT_FOUND
+     */
+    public String getCellValue(GridSnapshot snapshot, int rowNumber, int colNumber) {
+        if (colNumber <= 0) {
+            return COL_NOT_FOUND;
+        }
+        if (rowNumber <= 0 || rowNumber > snapshot.size()) {
+            return ROW_NOT_FOUND;
+        }
+        String value = snapshot.getCellValue(rowNumber, colNumber);
+        return value == null ? COL_NOT_FOUND : value;
+    }
+
     /**
      * indique si la valeur de cellule de la colonne cellToReadHeaderName de la ligne de la table dont la colonne subStringHeaderName contient la chaine subStringInCell vaut cellValue.
      * @param subStringInCell chaine pour identifier la ligne
@@ -515,6 +847,21 @@ public class Grid extends BaseElement {
         return value.equals(DataUtil.normalizeSpace(cellValue)) || DoubleUtil.asNum(value).equals(DoubleUtil.asNum(cellValue));
     }
 
+    /**
+     * indique si la valeur de cellule de la colonne colNumberCellToRead de la ligne dont la colonne colNumberSubString
+     * contient la chaine subStringInCell vaut cellValue, dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param subStringInCell chaine pour identifier la ligne
+     * @param colNumberSubString colonne de la ligne qui doit contenir subStringInCell
+     * @param colNumberCellToRead colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     * @return true si égalité, false sinon
+     */
+    public boolean cellValueEquals(GridSnapshot snapshot, String subStringInCell, int colNumberSubString, int colNumberCellToRead, String cellValue) {
+        String value = getCellValue(snapshot, subStringInCell, colNumberSubString, colNumberCellToRead);
+        return value.equals(DataUtil.normalizeSpace(cellValue)) || DoubleUtil.asNum(value).equals(DoubleUtil.asNum(cellValue));
+    }
+
     /**
      * recupère la valeur de l'attribut attr d'une cellule de la colonne cellToReadHeaderName de la ligne de la table dont la colonne subStringHeaderName contient la chaine subStringInCell.
      * @param subStringInCell chaine pour identifier la ligne
@@ -787,6 +1134,18 @@ public class Grid extends BaseElement {
         this.getTestContext().getReport().log(status, action + " sur ligne " + rowNumber, null, rowValue, value, null);
     }
 
+    /**
+     * vérifie que le contenu de la ligne rowNumber d'une copie de la table déjà lue vaut rowValue, sans relecture de la table
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param rowNumber
+     * @param rowValue
+     */
+    public void assertRowValueEquals(GridSnapshot snapshot, int rowNumber, String rowValue) {
+        String value = getRowValue(snapshot, rowNumber);
+        String status = value.equals(DataUtil.normalizeSpace(rowValue)) ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS;
+        this.getTestContext().getReport().log(status, "assertRowValueEquals sur ligne " + rowNumber, null, rowValue, value, null);
+    }
+
     /**
      * vérifie que la ligne rownum contient l'élément common.page.element.
      * Le résultat est tracé dans le rapport.
@@ -1003,6 +1362,19 @@ public class Grid extends BaseElement {
         assertCellValueEquals(getRowNumber(subStringInRow), colNumber, cellValue);
     }
 
+    /**
+     * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow d'une copie de la table déjà lue
+     * vaut cellValue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueEquals(GridSnapshot snapshot, String subStringInRow, int colNumber, String cellValue) {
+        assertCellValueEquals(snapshot, getRowNumber(snapshot, subStringInRow), colNumber, cellValue);
+    }
+
     /**
      * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow vaut cellValue.
      * Le résultat est tracé dans le rapport.
@@ -1014,6 +1386,21 @@ public class Grid extends BaseElement {
         getCell(rowNumber, colNumber).assertValue(cellValue);
     }
 
+    /**
+     * vérifie que la valeur de la cellule ligne rowNumber, colonne colNumber d'une copie de la table déjà lue
+     * vaut cellValue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param rowNumber numero de la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueEquals(GridSnapshot snapshot, int rowNumber, int colNumber, String cellValue) {
+        String value = getCellValue(snapshot, rowNumber, colNumber);
+        String status = value.equals(DataUtil.normalizeSpace(cellValue)) ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS;
+        this.getTestContext().getReport().log(status, "assertCellValueEquals ligne " + rowNumber + COL + colNumber, null, cellValue, value, null);
+    }
+
     /**
      * vérifie que valeur de cellule de la colonne cellToReadHeaderName de la ligne de la table dont la colonne subStringHeaderName contient la chaine subStringInCell vaut cellValue.
      * Le résultat est tracé dans le rapport.
@@ -1037,6 +1424,20 @@ public class Grid extends BaseElement {
         getCell(subStringInCell, colNumberSubString, colNumberCellToRead).assertValue(cellValue);
     }
 
+    /**
+     * vérifie que valeur de cellule de la colonne colNumberCellToRead de la ligne dont la colonne colNumberSubString
+     * contient la chaine subStringInCell vaut cellValue, dans une copie de la table déjà lue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInCell chaine pour identifier la ligne
+     * @param colNumberSubString colonne de la ligne qui doit contenir subStringInCell
+     * @param colNumberCellToRead colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueEquals(GridSnapshot snapshot, String subStringInCell, int colNumberSubString, int colNumberCellToRead, String cellValue) {
+        assertCellValueEquals(snapshot, getRowNumber(snapshot, subStringInCell, colNumberSubString), colNumberCellToRead, cellValue);
+    }
+
 
     //---------------------------------------------------------------------------------
     /**
@@ -1046,7 +1447,7 @@ public class Grid extends BaseElement {
      * @return
      */
     public double getCellValueAsDouble(String subStringInRow, int colNumber) {
-        Loader.waitNotVisible();
+        Loader.waitNotVisible(this.getPage());
         String value = getCellValue(subStringInRow, colNumber);
         try {
             String readVal = DoubleUtil.asNum(value);
@@ -1056,6 +1457,24 @@ public class Grid extends BaseElement {
             return -1;
         }
     }
+
+    /**
+     * renvoi la valeur d'une cellule en double, lue dans une copie de la table déjà lue
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param subStringInRow
+     * @param colNumber
+     * @return
+     */
+    public double getCellValueAsDouble(GridSnapshot snapshot, String subStringInRow, int colNumber) {
+        String value = getCellValue(snapshot, subStringInRow, colNumber);
+        try {
+            String readVal = DoubleUtil.asNum(value);
+            return Double.parseDouble(readVal.equals("")?"0":readVal);
+        } catch (Exception e) {
+            this.getTestContext().getReport().log(Reporter.FAIL_STATUS, value +  " n'est pas numérique");
+            return -1;
+        }
+    }
     /**
      * renvoi la valeur d'une cellule en double
      * @param subStringsInRow
@@ -1063,7 +1482,7 @@ public class Grid extends BaseElement {
      * @return
      */
     public double getCellValueAsDouble(String[] subStringsInRow, int colNumber) {
-        Loader.waitNotVisible();
+        Loader.waitNotVisible(this.getPage());
         String value = getCellValue(subStringsInRow, colNumber);
         try {
             String readVal = DoubleUtil.asNum(value);
@@ -1108,6 +1527,22 @@ public class Grid extends BaseElement {
         this.getTestContext().getReport().log(status, "assertCellValueAsDoubleEquals colonne " + colNumber + CONTENANT + subStringInRow, null, cellValue, String.valueOf(value), null);
     }
 
+    /**
+     * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow d'une copie de la table déjà lue
+     * vaut cellValue en tant que double, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueAsDoubleEquals(GridSnapshot snapshot, String subStringInRow, int colNumber, String cellValue) {
+        double expectedValue = Double.parseDouble(DoubleUtil.asNum(cellValue));
+        double value = getCellValueAsDouble(snapshot, subStringInRow, colNumber);
+        String status = Math.abs(expectedValue-value)>=0.01 ? Reporter.FAIL_NEXT_STATUS : Reporter.PASS_STATUS;
+        this.getTestContext().getReport().log(status, "assertCellValueAsDoubleEquals colonne " + colNumber + CONTENANT + subStringInRow, null, cellValue, String.valueOf(value), null);
+    }
+
     /**
      * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringsInRow vaut cellValue en tant que double.
      * Le résultat est tracé dans le rapport.
@@ -1170,6 +1605,19 @@ public class Grid extends BaseElement {
     public void assertCellValueContains(String subStringInRow, int colNumber, String cellValue) {
         assertCellValueContains(getRowNumber(subStringInRow), colNumber, cellValue);
     }
+
+    /**
+     * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow d'une copie de la table déjà lue
+     * contient cellValue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueContains(GridSnapshot snapshot, String subStringInRow, int colNumber, String cellValue) {
+        assertCellValueContains(snapshot, getRowNumber(snapshot, subStringInRow), colNumber, cellValue);
+    }
     /**
      * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow contient cellValue.
      * Le résultat est tracé dans le rapport.
@@ -1181,6 +1629,21 @@ public class Grid extends BaseElement {
         getCell(rowNumber, colNumber).assertValueContains(cellValue);
     }
 
+    /**
+     * vérifie que la valeur de la cellule ligne rowNumber, colonne colNumber d'une copie de la table déjà lue
+     * contient cellValue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param rowNumber numero la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueContains(GridSnapshot snapshot, int rowNumber, int colNumber, String cellValue) {
+        String value = getCellValue(snapshot, rowNumber, colNumber);
+        String status = value.contains(DataUtil.normalizeSpace(cellValue)) ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS;
+        this.getTestContext().getReport().log(status, "assertCellValueContains ligne " + rowNumber + COL + colNumber, null, cellValue, value, null);
+    }
+
     /**
      * vérifie que valeur de cellule de la colonne cellToReadHeaderName de la ligne de la table dont la colonne subStringHeaderName contient la chaine subStringInCell contient cellValue.
      * Le résultat est tracé dans le rapport.
@@ -1204,6 +1667,20 @@ public class Grid extends BaseElement {
         getCell(subStringInCell, colNumberSubString, colNumberCellToRead).assertValueContains(cellValue);
     }
 
+    /**
+     * vérifie que valeur de cellule de la colonne colNumberCellToRead de la ligne dont la colonne colNumberSubString
+     * contient la chaine subStringInCell contient cellValue, dans une copie de la table déjà lue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInCell chaine pour identifier la ligne
+     * @param colNumberSubString colonne de la ligne qui doit contenir subStringInCell
+     * @param colNumberCellToRead colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueContains(GridSnapshot snapshot, String subStringInCell, int colNumberSubString, int colNumberCellToRead, String cellValue) {
+        assertCellValueContains(snapshot, getRowNumber(snapshot, subStringInCell, colNumberSubString), colNumberCellToRead, cellValue);
+    }
+
 
     /**
      * vérifie que la valeur de la colonne headerName de la ligne contenant subStringInRow ne contient pas cellValue.
@@ -1225,6 +1702,19 @@ public class Grid extends BaseElement {
     public void assertCellValueNotContains(String subStringInRow, int colNumber, String cellValue) {
         assertCellValueNotContains(getRowNumber(subStringInRow), colNumber, cellValue);
     }
+
+    /**
+     * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow d'une copie de la table déjà lue
+     * ne contient pas cellValue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInRow chaine pour identifier la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueNotContains(GridSnapshot snapshot, String subStringInRow, int colNumber, String cellValue) {
+        assertCellValueNotContains(snapshot, getRowNumber(snapshot, subStringInRow), colNumber, cellValue);
+    }
     /**
      * vérifie que la valeur de la colonne colNumber de la ligne contenant subStringInRow ne contient pas cellValue.
      * Le résultat est tracé dans le rapport.
@@ -1236,6 +1726,21 @@ public class Grid extends BaseElement {
         getCell(rowNumber, colNumber). assertValueDoesntContain(cellValue);
     }
 
+    /**
+     * vérifie que la valeur de la cellule ligne rowNumber, colonne colNumber d'une copie de la table déjà lue
+     * ne contient pas cellValue, sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param rowNumber numero la ligne
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertCellValueNotContains(GridSnapshot snapshot, int rowNumber, int colNumber, String cellValue) {
+        String value = getCellValue(snapshot, rowNumber, colNumber);
+        String status = value.contains(DataUtil.normalizeSpace(cellValue)) ? Reporter.FAIL_NEXT_STATUS : Reporter.PASS_STATUS;
+        this.getTestContext().getReport().log(status, "assertCellValueNotContains ligne " + rowNumber + COL + colNumber, null, cellValue, value, null);
+    }
+
     /**
      * vérifie qu'une ligne de la table contient une valeur dans une colonne.
      * Le résultat est tracé dans le rapport.
@@ -1263,6 +1768,19 @@ public class Grid extends BaseElement {
         this.getTestContext().getReport().log((contains?Reporter.PASS_STATUS:Reporter.FAIL_NEXT_STATUS), action + " " + subStringInCell + COL + colNumberSubString, null, null , null, null);
     }
 
+    /**
+     * vérifie qu'une ligne d'une copie de la table déjà lue contient une valeur dans la colonne colNumberSubString,
+     * sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInCell valeur que l'on cherche dans la colonne colNumberSubString
+     * @param colNumberSubString numéro de la colonne dans laquelle on cherche subStringInCell
+     */
+    public void assertContains(GridSnapshot snapshot, String subStringInCell, int colNumberSubString) {
+        boolean contains = columnContains(snapshot, subStringInCell, colNumberSubString);
+        this.getTestContext().getReport().log((contains?Reporter.PASS_STATUS:Reporter.FAIL_NEXT_STATUS), "assertContains " + subStringInCell + COL + colNumberSubString, null, null , null, null);
+    }
+
     /**
      * vérifie qu'aucune ligne de la table ne contient une valeur dans une colonne.
      * Le résultat est tracé dans le rapport.
@@ -1290,6 +1808,19 @@ public class Grid extends BaseElement {
         this.getTestContext().getReport().log((!contains?Reporter.PASS_STATUS:Reporter.FAIL_NEXT_STATUS), action + " " + subStringInCell + COL + colNumberSubString, null, null , null, null);
     }
 
+    /**
+     * vérifie qu'aucune ligne d'une copie de la table déjà lue ne contient une valeur dans la colonne colNumberSubString,
+     * sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot(), réutilisable pour plusieurs vérifications
+     * @param subStringInCell valeur que l'on cherche dans la colonne colNumberSubString
+     * @param colNumberSubString numéro de la colonne dans laquelle on cherche subStringInCell
+     */
+    public void assertNotContains(GridSnapshot snapshot, String subStringInCell, int colNumberSubString) {
+        boolean contains = columnContains(snapshot, subStringInCell, colNumberSubString);
+        this.getTestContext().getReport().log((!contains?Reporter.PASS_STATUS:Reporter.FAIL_NEXT_STATUS), "assertNotContains " + subStringInCell + COL + colNumberSubString, null, null , null, null);
+    }
+
     /**
      * vérifie que la valeur de l'attribut attr d'une cellule de la colonne cellToReadHeaderName de la ligne de la table dont la colonne subStringHeaderName contient la chaine subStringInCell.
      * Le résultat est tracé dans le rapport.
@@ -1399,6 +1930,20 @@ public class Grid extends BaseElement {
         this.getTestContext().getReport().log(status, action + COL + colNumber, null, cellValue, value, null);
     }
 
+    /**
+     * vérifie que la valeur de la colonne colNumber du footer d'une copie de la table déjà lue vaut cellValue,
+     * sans relecture de la table.
+     * Le résultat est tracé dans le rapport.
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param colNumber colonne de la cellule dont on veut la valeur
+     * @param cellValue valeur attendue
+     */
+    public void assertFooterCellValueEquals(GridSnapshot snapshot, int colNumber, String cellValue) {
+        String value = getFooterCellValue(snapshot, colNumber);
+        String status = value.equals(DataUtil.normalizeSpace(cellValue)) ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS;
+        this.getTestContext().getReport().log(status, "assertFooterCellValueEquals" + COL + colNumber, null, cellValue, value, null);
+    }
+
 
 
     /**
@@ -1460,6 +2005,15 @@ public class Grid extends BaseElement {
         getReport().assertEquals("vérification nombre de ligne dans la table ", nbRow, rowCount);
     }
 
+    /**
+     * Verifie le nombre de ligne d'une copie de la table déjà lue.
+     * @param snapshot copie de la table renvoyée par snapshot()
+     * @param nbRow nombre de ligne attendu
+     */
+    public void assertRowCount(GridSnapshot snapshot, int nbRow) {
+        getReport().assertEquals("vérification nombre de ligne dans la table ", nbRow, snapshot.getRowCount());
+    }
+
 
     /**
      * contruit un bout de xpath pour trouver une ligne contenant un ensemble de valeur
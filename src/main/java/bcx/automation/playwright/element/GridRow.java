@@ -0,0 +1,57 @@
+package bcx.automation.playwright.element;
+
+import bcx.automation.util.data.DataUtil;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ligne de table lue lors d'un parcours incrémental de grille (Grid.scanRows).
+ */
+@Getter
+public class GridRow {
+    private final int index;
+    private final String key;
+    private final String text;
+    private final List<String> cells;
+    private final Map<String, String> attributes;
+
+    /**
+     * Constructeur de la classe GridRow.
+     *
+     * @param index La position de la ligne dans le parcours, à partir de 1.
+     * @param key La clé unique de la ligne.
+     * @param text Le texte complet de la ligne.
+     * @param cells Les textes des cellules td.
+     * @param attributes Les attributs HTML de la ligne.
+     */
+    public GridRow(int index, String key, String text, List<String> cells, Map<String, String> attributes) {
+        this.index = index;
+        this.key = key;
+        this.text = text;
+        this.cells = Collections.unmodifiableList(cells);
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Renvoie le texte de la cellule, espaces normalisés.
+     *
+     * @param colNumber Le numéro de colonne, à partir de 1.
+     * @return Le texte de la cellule ou null si absente.
+     */
+    public String getCell(int colNumber) {
+        return colNumber <= 0 || colNumber > cells.size() ? null : DataUtil.normalizeSpace(cells.get(colNumber - 1));
+    }
+
+    /**
+     * Indique si la ligne contient le texte.
+     *
+     * @param subStringInRow Le texte recherché.
+     * @return Vrai si la ligne contient le texte.
+     */
+    public boolean contains(String subStringInRow) {
+        return text.contains(subStringInRow);
+    }
+}
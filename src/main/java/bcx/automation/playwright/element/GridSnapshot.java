@@ -0,0 +1,272 @@
+package bcx.automation.playwright.element;
+
+import bcx.automation.util.data.DataUtil;
+import com.microsoft.playwright.Locator;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copie en mémoire, non modifiable, d'une table HTML lue en un seul appel au navigateur.
+ * Les cellules sont rangées par colonne ; les numéros de ligne et de colonne commencent à 1,
+ * comme les locators de Grid (tbody/tr[td][n]/td[m]).
+ */
+public class GridSnapshot {
+    public static final GridSnapshot EMPTY = new GridSnapshot(List.of(), List.of(), List.of(), List.of(), List.of());
+    private static final String NO_RESULT = "Aucun résultat";
+    private static final String SNAPSHOT_SCRIPT = "el => {" +
+            "const text = e => (e.innerText || '').trim();" +
+            "const cells = tr => Array.from(tr.children).filter(c => c.tagName === 'TD');" +
+            "const headers = Array.from(el.querySelectorAll('thead tr th')).map(text);" +
+            "const rows = Array.from(el.querySelectorAll('tbody > tr')).filter(tr => cells(tr).length > 0).map(tr => {" +
+            "const attrs = {};" +
+            "for (const a of tr.attributes) attrs[a.name] = a.value;" +
+            "return { text: text(tr), cells: cells(tr).map(text), attrs: attrs };" +
+            "});" +
+            "const footerRow = Array.from(el.querySelectorAll('tfoot > tr')).find(tr => cells(tr).length > 0);" +
+            "return { headers: headers, rows: rows, footer: footerRow ? cells(footerRow).map(text) : [] };" +
+            "}";
+
+    @Getter
+    private final List<String> headers;
+    private final List<String> rowTexts;
+    private final String[][] columns;
+    private final List<Map<String, String>> rowAttributes;
+    @Getter
+    private final List<String> footer;
+    private final Map<String, Integer> headerIndex = new HashMap<>();
+    private final Map<Integer, Map<String, Integer>> columnTextIndex = new HashMap<>();
+
+    private GridSnapshot(List<String> headers, List<String> rowTexts, List<List<String>> rowCells, List<Map<String, String>> rowAttributes, List<String> footer) {
+        this.headers = Collections.unmodifiableList(headers);
+        this.rowTexts = Collections.unmodifiableList(rowTexts);
+        this.rowAttributes = Collections.unmodifiableList(rowAttributes);
+        this.footer = Collections.unmodifiableList(footer);
+        int columnCount = rowCells.stream().mapToInt(List::size).max().orElse(0);
+        this.columns = new String[columnCount][rowCells.size()];
+        for (int row = 0; row < rowCells.size(); row++) {
+            List<String> cells = rowCells.get(row);
+            for (int col = 0; col < cells.size(); col++) {
+                columns[col][row] = cells.get(col);
+            }
+        }
+        for (int i = 0; i < headers.size(); i++) {
+            headerIndex.putIfAbsent(headers.get(i), i + 1);
+        }
+    }
+
+    /**
+     * Lit la table contenue dans l'élément en un seul appel evaluate.
+     *
+     * @param table Le locator de la grille.
+     * @param timeoutMs Le délai d'attente de l'élément en millisecondes.
+     * @return La copie de la table.
+     */
+    public static GridSnapshot read(Locator table, double timeoutMs) {
+        Object result = table.evaluate(SNAPSHOT_SCRIPT, null, new Locator.EvaluateOptions().setTimeout(timeoutMs));
+        if (!(result instanceof Map)) {
+            return EMPTY;
+        }
+        Map<?, ?> map = (Map<?, ?>) result;
+        List<String> headers = toStrings(map.get("headers"));
+        List<String> footer = toStrings(map.get("footer"));
+        List<String> rowTexts = new ArrayList<>();
+        List<List<String>> rowCells = new ArrayList<>();
+        List<Map<String, String>> rowAttributes = new ArrayList<>();
+        if (map.get("rows") instanceof List) {
+            for (Object row : (List<?>) map.get("rows")) {
+                Map<?, ?> rowMap = (Map<?, ?>) row;
+                rowTexts.add(String.valueOf(rowMap.get("text")));
+                rowCells.add(toStrings(rowMap.get("cells")));
+                Map<String, String> attributes = new LinkedHashMap<>();
+                if (rowMap.get("attrs") instanceof Map) {
+                    ((Map<?, ?>) rowMap.get("attrs")).forEach((k, v) -> attributes.put(String.valueOf(k), String.valueOf(v)));
+                }
+                rowAttributes.add(Collections.unmodifiableMap(attributes));
+            }
+        }
+        return new GridSnapshot(headers, rowTexts, rowCells, rowAttributes, footer);
+    }
+
+    /**
+     * Renvoie le numéro de la colonne d'entête headerName.
+     *
+     * @param headerName Le nom exact de l'entête.
+     * @return Le numéro de colonne, 0 si absente.
+     */
+    public int getColNumber(String headerName) {
+        return headerIndex.getOrDefault(headerName, 0);
+    }
+
+    /**
+     * Renvoie le nombre de lignes de données, hors ligne "Aucun résultat".
+     *
+     * @return Le nombre de lignes.
+     */
+    public int getRowCount() {
+        return (int) rowTexts.stream().filter(text -> !text.contains(NO_RESULT)).count();
+    }
+
+    /**
+     * Renvoie le premier numéro de ligne contenant subStringInRow.
+     *
+     * @param subStringInRow Le texte recherché.
+     * @return Le numéro de ligne, 0 si aucune.
+     */
+    public int getRowNumber(String subStringInRow) {
+        for (int row = 0; row < rowTexts.size(); row++) {
+            if (rowTexts.get(row).contains(subStringInRow)) {
+                return row + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Renvoie le premier numéro de ligne dont la cellule de la colonne colNumber vaut exactement cellValue,
+     * à partir de l'index de la colonne (construit au premier appel), sans parcours.
+     *
+     * @param cellValue Le texte exact de la cellule.
+     * @param colNumber Le numéro de colonne.
+     * @return Le numéro de ligne, 0 si aucune.
+     */
+    public int getRowNumberEquals(String cellValue, int colNumber) {
+        if (colNumber <= 0 || colNumber > columns.length) {
+            return 0;
+        }
+        return columnIndex(colNumber).getOrDefault(cellValue, 0);
+    }
+
+    /**
+     * Renvoie le premier numéro de ligne dont la cellule de la colonne colNumber contient subStringInCell.
+     *
+     * @param subStringInCell Le texte recherché.
+     * @param colNumber Le numéro de colonne.
+     * @return Le numéro de ligne, 0 si aucune.
+     */
+    public int getRowNumber(String subStringInCell, int colNumber) {
+        if (colNumber <= 0 || colNumber > columns.length) {
+            return 0;
+        }
+        String[] column = columns[colNumber - 1];
+        for (int row = 0; row < column.length; row++) {
+            if (column[row] != null && column[row].contains(subStringInCell)) {
+                return row + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Indique si une cellule de la colonne colNumber contient subStringInCell.
+     *
+     * @param subStringInCell Le texte recherché.
+     * @param colNumber Le numéro de colonne.
+     * @return Vrai si une cellule contient le texte.
+     */
+    public boolean columnContains(String subStringInCell, int colNumber) {
+        return getRowNumber(subStringInCell, colNumber) > 0;
+    }
+
+    /**
+     * Renvoie le texte de la cellule, espaces normalisés.
+     *
+     * @param rowNumber Le numéro de ligne.
+     * @param colNumber Le numéro de colonne.
+     * @return Le texte de la cellule, null si hors de la table.
+     */
+    public String getCellValue(int rowNumber, int colNumber) {
+        if (rowNumber <= 0 || colNumber <= 0 || colNumber > columns.length || rowNumber > rowTexts.size()) {
+            return null;
+        }
+        String value = columns[colNumber - 1][rowNumber - 1];
+        return value == null ? null : DataUtil.normalizeSpace(value);
+    }
+
+    /**
+     * Renvoie le texte de la cellule colNumber de la première ligne contenant subStringInRow.
+     *
+     * @param subStringInRow Le texte identifiant la ligne.
+     * @param colNumber Le numéro de colonne.
+     * @return Le texte de la cellule, null si absente.
+     */
+    public String getCellValue(String subStringInRow, int colNumber) {
+        return getCellValue(getRowNumber(subStringInRow), colNumber);
+    }
+
+    /**
+     * Renvoie le texte complet de la ligne.
+     *
+     * @param rowNumber Le numéro de ligne.
+     * @return Le texte de la ligne, null si hors de la table.
+     */
+    public String getRowValue(int rowNumber) {
+        return rowNumber <= 0 || rowNumber > rowTexts.size() ? null : DataUtil.normalizeSpace(rowTexts.get(rowNumber - 1));
+    }
+
+    /**
+     * Renvoie les attributs HTML de la ligne (tr).
+     *
+     * @param rowNumber Le numéro de ligne.
+     * @return Les attributs de la ligne, vide si hors de la table.
+     */
+    public Map<String, String> getRowAttributes(int rowNumber) {
+        return rowNumber <= 0 || rowNumber > rowAttributes.size() ? Map.of() : rowAttributes.get(rowNumber - 1);
+    }
+
+    /**
+     * Renvoie les textes de la colonne.
+     *
+     * @param colNumber Le numéro de colonne.
+     * @return Les textes de la colonne, vide si hors de la table.
+     */
+    public List<String> getColumn(int colNumber) {
+        return colNumber <= 0 || colNumber > columns.length ? List.of() : Collections.unmodifiableList(Arrays.asList(columns[colNumber - 1]));
+    }
+
+    /**
+     * Renvoie le texte de la cellule du footer.
+     *
+     * @param colNumber Le numéro de colonne.
+     * @return Le texte de la cellule, null si absente.
+     */
+    public String getFooterCellValue(int colNumber) {
+        return colNumber <= 0 || colNumber > footer.size() ? null : DataUtil.normalizeSpace(footer.get(colNumber - 1));
+    }
+
+    /**
+     * Renvoie le nombre total de lignes lues (tbody/tr[td]).
+     *
+     * @return Le nombre de lignes.
+     */
+    public int size() {
+        return rowTexts.size();
+    }
+
+    private synchronized Map<String, Integer> columnIndex(int colNumber) {
+        return columnTextIndex.computeIfAbsent(colNumber, col -> {
+            Map<String, Integer> index = new HashMap<>();
+            String[] column = columns[col - 1];
+            for (int row = 0; row < column.length; row++) {
+                if (column[row] != null) index.putIfAbsent(column[row], row + 1);
+            }
+            return index;
+        });
+    }
+
+    private static List<String> toStrings(Object value) {
+        List<String> strings = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                strings.add(String.valueOf(item));
+            }
+        }
+        return strings;
+    }
+}
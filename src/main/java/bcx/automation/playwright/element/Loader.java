@@ -3,8 +3,15 @@ package bcx.automation.playwright.element;
 import bcx.automation.util.TimeWait;
 import com.microsoft.playwright.ElementHandle;
 import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
 import lombok.extern.slf4j.Slf4j;
 import bcx.automation.properties.GlobalProp;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * classe permettant de gérer les asynchronismes et l'attente de disparition des loaders
@@ -17,6 +24,19 @@ public class Loader {
      * locator du loader s'il y en a un
      */
     private static Locator loader1 = null;
+    /**
+     * sélecteur CSS du loader surveillé dans la page par un MutationObserver, sinon null et attente par polling
+     */
+    private static String watchSelector = null;
+    private static final Set<Page> watchedPages = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final String WATCH_SCRIPT = "(selector => {" +
+            "if (window.__bcxLoaderWatch) return;" +
+            "window.__bcxLoaderWatch = true;" +
+            "const isVisible = el => { const r = el.getBoundingClientRect(); return r.width > 0 && r.height > 0 && getComputedStyle(el).visibility !== 'hidden'; };" +
+            "const update = () => { window.__bcxLoaderVisible = Array.from(document.querySelectorAll(selector)).some(isVisible); };" +
+            "const start = () => { update(); new MutationObserver(update).observe(document.documentElement, { subtree: true, childList: true, attributes: true, attributeFilter: ['style', 'class', 'hidden'] }); };" +
+            "if (document.documentElement) start(); else document.addEventListener('DOMContentLoaded', start);" +
+            "})(%s);";
 
     /**
      * set le locator du loader, sinon null et pas d'attente de loader. A setter dans le listener before test
@@ -27,6 +47,14 @@ public class Loader {
     }
 
 
+    /**
+     * set le sélecteur CSS du loader à surveiller par MutationObserver (mode loaderWatch), sinon null et attente par polling
+     * @param selector
+     */
+    public static void setLoaderWatch(String selector) {
+        watchSelector = selector == null || selector.isBlank() ? null : selector;
+    }
+
     /**
      * Attend que les loaders ne soient plus displayed
      */
@@ -34,6 +62,62 @@ public class Loader {
         return waitNotVisible(0);
     }
 
+    /**
+     * Attend que les loaders ne soient plus displayed sur la page
+     * @param page la page courante
+     */
+    public static boolean waitNotVisible(Page page) {
+        return waitNotVisible(page, 0);
+    }
+
+    /**
+     * Attend que les loaders ne soient plus displayed sur la page.
+     * En mode loaderWatch, l'état du loader est lu dans la page en un seul appel puis attendu avec waitForFunction.
+     * @param page la page courante
+     * @param timeout timeout en secondes d'attente d'apparition du loader
+     */
+    public static boolean waitNotVisible(Page page, int timeout) {
+        if (!GlobalProp.isUseLoader() || getWatchSelector() == null || page == null) {
+            return waitNotVisible(timeout);
+        }
+        boolean loaderAppears = false;
+        try {
+            watch(page);
+            if (timeout > 0) {
+                try {
+                    page.waitForFunction("() => window.__bcxLoaderVisible === true", null, new Page.WaitForFunctionOptions().setTimeout(timeout * 1000));
+                } catch (TimeoutError ignore) {
+                    // pas de loader apparu
+                }
+            }
+            if (Boolean.TRUE.equals(page.evaluate("() => window.__bcxLoaderVisible === true"))) {
+                loaderAppears = true;
+                page.waitForFunction("() => window.__bcxLoaderVisible !== true", null, new Page.WaitForFunctionOptions().setTimeout(GlobalProp.getLoaderTimeOutMinute() * 60 * 1000));
+            }
+        } catch (Exception ignore) {
+            // loader toujours visible après le timeout ou page fermée
+        }
+        return loaderAppears;
+    }
+
+    /**
+     * Installe une seule fois par page le MutationObserver qui tient à jour l'indicateur window.__bcxLoaderVisible.
+     * @param page la page à surveiller
+     */
+    private static void watch(Page page) {
+        if (watchedPages.add(page)) {
+            String script = String.format(WATCH_SCRIPT, JSONObject.quote(getWatchSelector()));
+            page.addInitScript(script);
+            page.evaluate(script);
+        }
+    }
+
+    private static String getWatchSelector() {
+        if (watchSelector != null) return watchSelector;
+        String selector = GlobalProp.getLoaderWatchSelector();
+        return selector == null || selector.isBlank() ? null : selector;
+    }
+
     /**
      * Attend que les loaders ne soient plus displayed
      * @param timeout timeout en secondes
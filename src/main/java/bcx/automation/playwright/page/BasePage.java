@@ -3,6 +3,7 @@ package bcx.automation.playwright.page;
 import bcx.automation.playwright.element.BaseElement;
 import bcx.automation.test.TestContext;
 import bcx.automation.util.TimeWait;
+import bcx.automation.util.app.AuthStateCache;
 import bcx.automation.util.app.ConnectedUserUtil;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.options.LoadState;
@@ -13,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import bcx.automation.report.Reporter;
 import bcx.automation.util.data.DataSetUtil;
 
+import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.*;
 
@@ -133,12 +135,18 @@ public abstract class BasePage {
         this.page.waitForLoadState(LoadState.DOMCONTENTLOADED);
         String currentUrl = currentUrl();
         try {
-            password = URLEncoder.encode(password, "UTF-8");
-            user = URLEncoder.encode(user, "UTF-8");
+            if (AuthStateCache.isEnabled() && restoreAuthState(user, currentUrl)) {
+                return true;
+            }
+            String encodedPassword = URLEncoder.encode(password, "UTF-8");
+            String encodedUser = URLEncoder.encode(user, "UTF-8");
             String https = "https://";
-            navigate(String.valueOf(currentUrl).replace(https, https + user + ":" + password + "@"));
-            this.report.log(Reporter.INFO_STATUS, "Login with user : " + user);
-            ConnectedUserUtil.setConnectedUser(user, this.page);
+            navigate(String.valueOf(currentUrl).replace(https, https + encodedUser + ":" + encodedPassword + "@"));
+            this.report.log(Reporter.INFO_STATUS, "Login with user : " + encodedUser);
+            ConnectedUserUtil.setConnectedUser(encodedUser, this.page);
+            if (AuthStateCache.isEnabled() && !AuthStateCache.isLoginPage(this.page)) {
+                AuthStateCache.record(user, this.page.context());
+            }
             return true;
         } catch (Exception e) {
             this.report.log(Reporter.FAIL_STATUS_NO_SCREENSHOT, e);
@@ -148,6 +156,39 @@ public abstract class BasePage {
     }
 
 
+    /**
+     * Restaure l'état d'authentification en cache de l'utilisateur et recharge la page.
+     * Si l'accès est refusé (401/403) ou si la page de login est encore détectée, l'état est invalidé,
+     * le contexte est nettoyé et le login par identifiants doit être fait.
+     *
+     * @param user Le nom de l'utilisateur.
+     * @param currentUrl L'URL à recharger.
+     * @return Vrai si la session a été restaurée, faux si un login est nécessaire.
+     */
+    private boolean restoreAuthState(String user, String currentUrl) throws UnsupportedEncodingException {
+        String storageState = AuthStateCache.get(user);
+        if (storageState == null) {
+            return false;
+        }
+        AuthStateCache.apply(this.page.context(), storageState);
+        Response response = this.page.navigate(currentUrl);
+        if (!AuthStateCache.isUnauthorized(response) && AuthStateCache.applyLocalStorage(this.page, storageState)) {
+            response = this.page.reload();
+        }
+        this.page.waitForLoadState(LoadState.DOMCONTENTLOADED);
+        if (AuthStateCache.isUnauthorized(response) || AuthStateCache.isLoginPage(this.page)) {
+            log.info("État d'authentification refusé ou expiré côté application pour " + user);
+            AuthStateCache.invalidate(user);
+            this.page.context().clearCookies();
+            this.page.evaluate("() => { try { localStorage.clear(); } catch (e) {} }");
+            return false;
+        }
+        String encodedUser = URLEncoder.encode(user, "UTF-8");
+        this.report.log(Reporter.INFO_STATUS, "Session restored for user : " + encodedUser);
+        ConnectedUserUtil.setConnectedUser(encodedUser, this.page);
+        return true;
+    }
+
     /**
      * Définit les valeurs des éléments à partir d'un fichier de données.
      *
@@ -0,0 +1,126 @@
+package bcx.automation.properties;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Copie immuable d'un jeu de propriétés, lue une seule fois depuis son fichier.
+ * Les couches ajoutées par overlay remplacent les valeurs des couches précédentes.
+ */
+@Slf4j
+public final class ConfigSnapshot {
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(Map.of());
+
+    private final Map<String, String> values;
+
+    private ConfigSnapshot(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Lit un fichier de propriétés.
+     *
+     * @param filePath Le chemin du fichier.
+     * @return La copie des propriétés du fichier, vide si le fichier est illisible.
+     */
+    public static ConfigSnapshot read(String filePath) {
+        final Properties prop = new Properties();
+        try (InputStream input = new FileInputStream(filePath)) {
+            prop.load(input);
+        } catch (IOException e) {
+            log.error("Exception lors du chargement des propriétés " + filePath, e);
+            return EMPTY;
+        }
+        return of(prop);
+    }
+
+    /**
+     * Crée une copie de propriétés.
+     *
+     * @param prop Les propriétés.
+     * @return La copie des propriétés.
+     */
+    public static ConfigSnapshot of(Properties prop) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : prop.stringPropertyNames()) {
+            values.put(key, prop.getProperty(key));
+        }
+        return new ConfigSnapshot(Collections.unmodifiableMap(values));
+    }
+
+    /**
+     * Renvoie une nouvelle copie où les propriétés de la couche remplacent celles de cette copie.
+     *
+     * @param layer La couche à superposer.
+     * @return La copie résultante.
+     */
+    public ConfigSnapshot overlay(ConfigSnapshot layer) {
+        if (layer.values.isEmpty()) {
+            return this;
+        }
+        Map<String, String> merged = new HashMap<>(values);
+        merged.putAll(layer.values);
+        return new ConfigSnapshot(Collections.unmodifiableMap(merged));
+    }
+
+    /**
+     * Renvoie la valeur d'une propriété.
+     *
+     * @param key La clé de la propriété.
+     * @return La valeur, ou null si absente.
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    /**
+     * Renvoie la valeur d'une propriété, ou la valeur par défaut si elle est absente.
+     *
+     * @param key La clé de la propriété.
+     * @param defaultValue La valeur par défaut.
+     * @return La valeur de la propriété.
+     */
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Renvoie la valeur entière d'une propriété, ou la valeur par défaut si elle est absente ou vide.
+     *
+     * @param key La clé de la propriété.
+     * @param defaultValue La valeur par défaut.
+     * @return La valeur de la propriété.
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Renvoie la valeur booléenne d'une propriété, ou la valeur par défaut si elle est absente ou vide.
+     *
+     * @param key La clé de la propriété.
+     * @param defaultValue La valeur par défaut.
+     * @return La valeur de la propriété.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Renvoie les propriétés sous forme de map non modifiable.
+     *
+     * @return Les propriétés.
+     */
+    public Map<String, String> asMap() {
+        return values;
+    }
+}
@@ -3,15 +3,15 @@ package bcx.automation.properties;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Classe utilitaire pour charger et gérer les propriétés d'environnement.
  */
 @Slf4j
 public class EnvProp {
+    private static final Map<String, ConfigSnapshot> snapshots = new ConcurrentHashMap<>();
     private static String environnement;
     @Getter
     private static String defaultSchema;
@@ -26,17 +26,34 @@ public class EnvProp {
     public static void loadProperties(String env) {
         environnement = env;
         if (env != null) {
-            final java.util.Properties prop = new java.util.Properties();
-            try (InputStream input = new FileInputStream("target/test-classes/test_" + env + ".properties")) {
-                prop.load(input);
-                allBddSchemas = prop.getProperty("allBddSchemas");
-                defaultSchema = prop.getProperty("defaultSchema");
-            } catch (final IOException ex) {
-                log.error("Exception lors du chargement des variables globales", ex);
-            }
+            snapshots.remove(env);
+            ConfigSnapshot snapshot = getSnapshot(env);
+            allBddSchemas = snapshot.get("allBddSchemas");
+            defaultSchema = snapshot.get("defaultSchema");
+            GlobalProp.reloadSnapshot();
         }
     }
 
+    /**
+     * Renvoie la copie en mémoire des propriétés d'un environnement, lues une seule fois.
+     *
+     * @param env L'environnement.
+     * @return Les propriétés de l'environnement, vides si env est null ou le fichier illisible.
+     */
+    public static ConfigSnapshot getSnapshot(String env) {
+        if (env == null) {
+            return ConfigSnapshot.EMPTY;
+        }
+        return snapshots.computeIfAbsent(env, e -> ConfigSnapshot.read("target/test-classes/test_" + e + ".properties"));
+    }
+
+    /**
+     * Oublie les propriétés d'environnement en mémoire : elles seront relues au prochain accès.
+     */
+    public static void clearCache() {
+        snapshots.clear();
+    }
+
     /**
      * Renvoie l'environnement actuel.
      *
@@ -64,14 +81,6 @@ public class EnvProp {
      * @return La valeur de la propriété ou null si non trouvée.
      */
     public static String get(String env, String key) {
-        final java.util.Properties prop = new java.util.Properties();
-        String value = null;
-        try (InputStream input = new FileInputStream("target/test-classes/test_" + env + ".properties")) {
-            prop.load(input);
-            value = prop.getProperty(key);
-        } catch (Exception e) {
-            log.error("Exception lors du chargement de la valeur de la variable globale " + key, e);
-        }
-        return value;
+        return getSnapshot(env).get(key);
     }
 }
@@ -6,9 +6,14 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
+import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Classe utilitaire pour gérer les propriétés globales de l'application.
@@ -23,7 +28,9 @@ public class GlobalProp {
     public static final String PROXY_HOST = "proxyHost";
     public static final String PROXY_PORT = "proxyPort";
     public static final String CLOSE_BROWSER_AFTER_METHOD = "closeBrowserAfterMethod";
+    public static final String RECYCLE_CONTEXT_AFTER_METHOD = "recycleContextAfterMethod";
     public static final String USE_LOADER = "useLoader";
+    public static final String LOADER_WATCH_SELECTOR = "loaderWatchSelector";
     public static final String PAGE_LOAD_STRATEGY = "pageLoadStrategy";
     public static final String TIME_OUT = "timeOut";
     public static final String PAGE_LOAD_TIME_OUT = "pageLoadTimeOut";
@@ -39,6 +46,44 @@ public class GlobalProp {
     public static final String TEST_ID_ATTRIBUTE = "testIdAttribute";
     public static final String APPIUM_URL = "appiumUrl";
     public static final String RECORD_VIDEO = "recordVideo";
+    public static final String BROWSER_POOL = "browserPool";
+    public static final String BROWSER_POOL_SIZE = "browserPoolSize";
+    public static final String BROWSER_POOL_MAX_PER_TYPE = "browserPoolMaxPerType";
+    public static final String BROWSER_LAUNCH_CONCURRENCY = "browserLaunchConcurrency";
+    public static final String BROWSER_PRELAUNCH = "browserPrelaunch";
+    public static final String AUTH_STATE_CACHE = "authStateCache";
+    public static final String AUTH_STATE_TTL_MINUTES = "authStateTtlMinutes";
+    public static final String AUTH_STATE_PERSIST = "authStatePersist";
+    public static final String AUTH_LOGIN_PAGE_MARKER = "authLoginPageMarker";
+    public static final String ASYNC_REPORT = "asyncReport";
+    public static final String ASYNC_REPORT_QUEUE_SIZE = "asyncReportQueueSize";
+    public static final String SCREENSHOT_MODE = "screenshotMode";
+    public static final String SCREENSHOT_FAIL_MODE = "screenshotFailMode";
+    public static final String SCREENSHOT_FORMAT = "screenshotFormat";
+    public static final String SCREENSHOT_QUALITY = "screenshotQuality";
+    public static final String SCREENSHOT_DEDUP = "screenshotDedup";
+    public static final String SCREENSHOT_DEDUP_DISTANCE = "screenshotDedupDistance";
+    public static final String SCREENSHOT_BUDGET_KB = "screenshotBudgetKb";
+    public static final String SCREENSHOT_WORKERS = "screenshotWorkers";
+    public static final String LAZY_BROWSER_START = "lazyBrowserStart";
+    public static final String WATCH_PROPERTIES = "watchProperties";
+    public static final String BDD_POOL_MAX_SIZE = "bddPoolMaxSize";
+    public static final String BDD_POOL_IDLE_TIMEOUT_SECONDS = "bddPoolIdleTimeoutSeconds";
+    public static final String BDD_POOL_VALIDATION_TIMEOUT_SECONDS = "bddPoolValidationTimeoutSeconds";
+    public static final String BDD_STATEMENT_CACHE_SIZE = "bddStatementCacheSize";
+    public static final String BDD_FETCH_SIZE = "bddFetchSize";
+    public static final String BDD_LOG_SAMPLE_ROWS = "bddLogSampleRows";
+    public static final String BDD_BATCH_SIZE = "bddBatchSize";
+    public static final String BDD_WAIT_INITIAL_DELAY_MS = "bddWaitInitialDelayMs";
+    public static final String BDD_WAIT_MAX_DELAY_MS = "bddWaitMaxDelayMs";
+    public static final String BDD_WAIT_NOTIFY_CHANNEL = "bddWaitNotifyChannel";
+    public static final String WS_HTTP2 = "wsHttp2";
+    public static final String WS_CONNECT_TIMEOUT_SECONDS = "wsConnectTimeoutSeconds";
+    public static final String WS_TIMEOUT_SECONDS = "wsTimeoutSeconds";
+    private static final String PROPERTIES_FOLDER = "target/test-classes";
+    private static final String PROPERTIES_FILE = PROPERTIES_FOLDER + "/test.properties";
+    private static final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private static volatile Thread propertiesWatcher;
 
     @Setter
     @Getter
@@ -61,8 +106,12 @@ public class GlobalProp {
     @Getter
     private static boolean closeBrowserAfterMethod;
     @Getter
+    private static boolean recycleContextAfterMethod;
+    @Getter
     private static boolean useLoader;
     @Getter
+    private static String loaderWatchSelector;
+    @Getter
     private static String pageLoadStrategy;
     @Getter
     private static int timeOut;
@@ -97,6 +146,73 @@ public class GlobalProp {
     private static String attributesPotentialElement;
     @Getter
     private static String appiumUrl;
+    @Getter
+    private static boolean browserPool;
+    @Getter
+    private static int browserPoolSize;
+    @Getter
+    private static int browserPoolMaxPerType;
+    @Getter
+    private static int browserLaunchConcurrency;
+    @Getter
+    private static int browserPrelaunch;
+    @Getter
+    private static boolean authStateCache;
+    @Getter
+    private static int authStateTtlMinutes;
+    @Getter
+    private static boolean authStatePersist;
+    @Getter
+    private static String authLoginPageMarker;
+    @Setter
+    @Getter
+    private static boolean asyncReport;
+    @Getter
+    private static int asyncReportQueueSize;
+    @Getter
+    private static String screenshotMode;
+    @Getter
+    private static String screenshotFailMode;
+    @Getter
+    private static String screenshotFormat;
+    @Getter
+    private static int screenshotQuality;
+    @Getter
+    private static boolean screenshotDedup;
+    @Getter
+    private static int screenshotDedupDistance;
+    @Getter
+    private static int screenshotBudgetKb;
+    @Getter
+    private static int screenshotWorkers;
+    @Getter
+    private static boolean lazyBrowserStart;
+    @Getter
+    private static int bddPoolMaxSize;
+    @Getter
+    private static int bddPoolIdleTimeoutSeconds;
+    @Getter
+    private static int bddPoolValidationTimeoutSeconds;
+    @Getter
+    private static int bddStatementCacheSize;
+    @Getter
+    private static int bddFetchSize;
+    @Getter
+    private static int bddLogSampleRows;
+    @Getter
+    private static int bddBatchSize;
+    @Getter
+    private static int bddWaitInitialDelayMs;
+    @Getter
+    private static int bddWaitMaxDelayMs;
+    @Getter
+    private static String bddWaitNotifyChannel;
+    @Getter
+    private static boolean wsHttp2;
+    @Getter
+    private static int wsConnectTimeoutSeconds;
+    @Getter
+    private static int wsTimeoutSeconds;
 
     /**
      * Charge les propriétés globales à partir du fichier de configuration.
@@ -108,7 +224,7 @@ public class GlobalProp {
         startDateTimeSuite = LocalDateTime.now();
 
         final java.util.Properties prop = new java.util.Properties();
-        try (InputStream input = new FileInputStream("target/test-classes/test.properties")) {
+        try (InputStream input = new FileInputStream(PROPERTIES_FILE)) {
             prop.load(input);
             browser = System.getProperty(BROWSER) == null ? prop.getProperty(BROWSER) : System.getProperty(BROWSER);
             browserPrivate = prop.getProperty(BROWSER_PRIVATE) != null && Boolean.parseBoolean(prop.getProperty(BROWSER_PRIVATE));
@@ -120,7 +236,9 @@ public class GlobalProp {
             proxyPort = prop.getProperty(PROXY_PORT);
 
             closeBrowserAfterMethod = Boolean.parseBoolean(prop.getProperty(CLOSE_BROWSER_AFTER_METHOD));
+            recycleContextAfterMethod = Boolean.parseBoolean(prop.getProperty(RECYCLE_CONTEXT_AFTER_METHOD));
             useLoader = Boolean.parseBoolean(prop.getProperty(USE_LOADER));
+            loaderWatchSelector = prop.getProperty(LOADER_WATCH_SELECTOR);
 
             pageLoadStrategy = prop.getProperty(PAGE_LOAD_STRATEGY);
             timeOut = Integer.parseInt(prop.getProperty(TIME_OUT));
@@ -143,6 +261,48 @@ public class GlobalProp {
 
             appiumUrl = prop.getProperty(APPIUM_URL);
 
+            browserPool = Boolean.parseBoolean(prop.getProperty(BROWSER_POOL));
+            browserPoolSize = getIntProperty(prop, BROWSER_POOL_SIZE, 1);
+            browserPoolMaxPerType = getIntProperty(prop, BROWSER_POOL_MAX_PER_TYPE, 5);
+            browserLaunchConcurrency = getIntProperty(prop, BROWSER_LAUNCH_CONCURRENCY, 2);
+            browserPrelaunch = getIntProperty(prop, BROWSER_PRELAUNCH, 0);
+
+            authStateCache = Boolean.parseBoolean(prop.getProperty(AUTH_STATE_CACHE));
+            authStateTtlMinutes = getIntProperty(prop, AUTH_STATE_TTL_MINUTES, 30);
+            authStatePersist = Boolean.parseBoolean(prop.getProperty(AUTH_STATE_PERSIST));
+            authLoginPageMarker = prop.getProperty(AUTH_LOGIN_PAGE_MARKER);
+
+            asyncReport = Boolean.parseBoolean(prop.getProperty(ASYNC_REPORT));
+            asyncReportQueueSize = getIntProperty(prop, ASYNC_REPORT_QUEUE_SIZE, 10000);
+
+            screenshotMode = prop.getProperty(SCREENSHOT_MODE, "fullPage");
+            screenshotFailMode = prop.getProperty(SCREENSHOT_FAIL_MODE, "fullPage");
+            screenshotFormat = prop.getProperty(SCREENSHOT_FORMAT, "png");
+            screenshotQuality = getIntProperty(prop, SCREENSHOT_QUALITY, 80);
+            screenshotDedup = Boolean.parseBoolean(prop.getProperty(SCREENSHOT_DEDUP));
+            screenshotDedupDistance = getIntProperty(prop, SCREENSHOT_DEDUP_DISTANCE, 0);
+            screenshotBudgetKb = getIntProperty(prop, SCREENSHOT_BUDGET_KB, 0);
+            screenshotWorkers = getIntProperty(prop, SCREENSHOT_WORKERS, 2);
+
+            lazyBrowserStart = Boolean.parseBoolean(prop.getProperty(LAZY_BROWSER_START));
+
+            bddPoolMaxSize = getIntProperty(prop, BDD_POOL_MAX_SIZE, 10);
+            bddPoolIdleTimeoutSeconds = getIntProperty(prop, BDD_POOL_IDLE_TIMEOUT_SECONDS, 300);
+            bddPoolValidationTimeoutSeconds = getIntProperty(prop, BDD_POOL_VALIDATION_TIMEOUT_SECONDS, 2);
+            bddStatementCacheSize = getIntProperty(prop, BDD_STATEMENT_CACHE_SIZE, 50);
+            bddFetchSize = getIntProperty(prop, BDD_FETCH_SIZE, 500);
+            bddLogSampleRows = getIntProperty(prop, BDD_LOG_SAMPLE_ROWS, 10);
+            bddBatchSize = getIntProperty(prop, BDD_BATCH_SIZE, 500);
+            bddWaitInitialDelayMs = getIntProperty(prop, BDD_WAIT_INITIAL_DELAY_MS, 100);
+            bddWaitMaxDelayMs = getIntProperty(prop, BDD_WAIT_MAX_DELAY_MS, 2000);
+            bddWaitNotifyChannel = prop.getProperty(BDD_WAIT_NOTIFY_CHANNEL, "");
+            wsHttp2 = Boolean.parseBoolean(prop.getProperty(WS_HTTP2));
+            wsConnectTimeoutSeconds = getIntProperty(prop, WS_CONNECT_TIMEOUT_SECONDS, 30);
+            wsTimeoutSeconds = getIntProperty(prop, WS_TIMEOUT_SECONDS, 0);
+
+            reloadSnapshot();
+            if (Boolean.parseBoolean(prop.getProperty(WATCH_PROPERTIES))) watchProperties();
+
             if (!new File(testFileFolder).exists()) {
                 new File(testFileFolder).mkdir();
             }
@@ -151,6 +311,19 @@ public class GlobalProp {
         }
     }
 
+    /**
+     * Renvoie la valeur entière d'une propriété, ou la valeur par défaut si elle est absente.
+     *
+     * @param prop Les propriétés chargées.
+     * @param key La clé de la propriété.
+     * @param defaultValue La valeur par défaut.
+     * @return La valeur de la propriété.
+     */
+    private static int getIntProperty(java.util.Properties prop, String key, int defaultValue) {
+        String value = prop.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
     /**
      * Renvoie le timeout d'assertion en fonction du statut du rapport.
      *
@@ -166,21 +339,73 @@ public class GlobalProp {
     }
 
     /**
-     * Renvoie la valeur d'une propriété spécifique à partir du fichier de configuration.
+     * Renvoie la valeur d'une propriété spécifique, lue dans la copie en mémoire de la configuration :
+     * propriétés système, puis fichier de l'environnement (EnvProp), puis fichier de configuration.
      *
      * @param key La clé de la propriété à récupérer.
      * @return La valeur de la propriété ou null si non trouvée.
      */
     public static String get(String key) {
-        final java.util.Properties prop = new java.util.Properties();
-        String value = null;
-        try (InputStream input = new FileInputStream("target/test-classes/test.properties")) {
-            prop.load(input);
-            value = prop.getProperty(key);
-        } catch (Exception e) {
-            log.error("Exception lors du chargement de la valeur de la variable globale " + key, e);
+        return getSnapshot().get(key);
+    }
+
+    /**
+     * Renvoie la copie en mémoire de la configuration, chargée au premier appel.
+     *
+     * @return La configuration.
+     */
+    public static ConfigSnapshot getSnapshot() {
+        ConfigSnapshot current = snapshot.get();
+        if (current == null) {
+            snapshot.compareAndSet(null, buildSnapshot());
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    /**
+     * Relit les fichiers de configuration et publie la nouvelle copie de la configuration.
+     * Les propriétés déjà chargées dans les champs de GlobalProp ne sont pas modifiées.
+     */
+    public static void reloadSnapshot() {
+        snapshot.set(buildSnapshot());
+    }
+
+    private static ConfigSnapshot buildSnapshot() {
+        return ConfigSnapshot.read(PROPERTIES_FILE)
+                .overlay(EnvProp.getSnapshot(System.getProperty("env")))
+                .overlay(ConfigSnapshot.of(System.getProperties()));
+    }
+
+    /**
+     * Surveille les fichiers de configuration et republie la configuration à chaque modification (watchProperties=true).
+     */
+    private static synchronized void watchProperties() {
+        if (propertiesWatcher != null) {
+            return;
         }
-        return value;
+        propertiesWatcher = new Thread(() -> {
+            try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+                Paths.get(PROPERTIES_FOLDER).register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+                while (!Thread.currentThread().isInterrupted()) {
+                    WatchKey key = watchService.take();
+                    boolean changed = key.pollEvents().stream()
+                            .anyMatch(event -> String.valueOf(event.context()).endsWith(".properties"));
+                    key.reset();
+                    if (changed) {
+                        EnvProp.clearCache();
+                        reloadSnapshot();
+                        log.info("Configuration rechargée après modification des fichiers de propriétés");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.error("Impossible de surveiller les fichiers de propriétés", e);
+            }
+        }, "bcx-properties-watcher");
+        propertiesWatcher.setDaemon(true);
+        propertiesWatcher.start();
     }
 
     /**
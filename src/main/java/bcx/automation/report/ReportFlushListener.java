@@ -0,0 +1,26 @@
+package bcx.automation.report;
+
+import io.qameta.allure.listener.FixtureLifecycleListener;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.FixtureResult;
+import io.qameta.allure.model.TestResult;
+
+/**
+ * Listener Allure, déclaré dans META-INF/services : avant l'arrêt d'un test ou d'une fixture, attend l'écriture des steps
+ * déposés dans le ReportWriter (asyncReport=true) et le traitement des captures d'écran du thread, pour que le résultat
+ * soit complet avant son écriture, y compris quand le test se termine par une exception ou sans appel à endTest.
+ */
+public class ReportFlushListener implements TestLifecycleListener, FixtureLifecycleListener {
+
+    @Override
+    public void beforeTestStop(TestResult result) {
+        ReportWriter.drain();
+        ScreenshotEngine.awaitCurrentThread();
+    }
+
+    @Override
+    public void beforeFixtureStop(FixtureResult result) {
+        ReportWriter.drain();
+        ScreenshotEngine.awaitCurrentThread();
+    }
+}
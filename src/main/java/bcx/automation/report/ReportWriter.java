@@ -0,0 +1,142 @@
+package bcx.automation.report;
+
+import bcx.automation.properties.GlobalProp;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écrivain en tâche de fond des logs SLF4J et des steps Allure (asyncReport=true).
+ * Les événements sont déposés dans une file bornée et traités par un unique thread, dans leur ordre de dépôt :
+ * l'ordre des événements d'un même test est donc conservé. Si la file est pleine, le thread du test attend.
+ */
+@Slf4j
+public class ReportWriter {
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final Object lock = new Object();
+    private static volatile BlockingQueue<Event> queue;
+    private static volatile Thread writer;
+
+    private ReportWriter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Dépose un événement à écrire en tâche de fond.
+     *
+     * @param task L'écriture à réaliser.
+     * @return Le futur terminé une fois l'événement écrit.
+     */
+    public static CompletableFuture<Void> submit(Runnable task) {
+        Event event = new Event(task);
+        try {
+            queue().put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            event.run();
+        }
+        return event.done;
+    }
+
+    /**
+     * Attend que l'événement et tous ceux déposés avant lui soient écrits.
+     *
+     * @param lastEvent Le dernier événement déposé, peut être null.
+     */
+    public static void await(CompletableFuture<Void> lastEvent) {
+        if (lastEvent == null || lastEvent.isDone()) {
+            return;
+        }
+        try {
+            lastEvent.get(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("ReportWriter : attente de l'écriture du rapport interrompue", e);
+        }
+    }
+
+    /**
+     * Attend que tous les événements déjà déposés soient écrits. Sans effet si le thread d'écriture n'est pas démarré
+     * ou si l'appel vient du thread d'écriture lui-même.
+     */
+    public static void drain() {
+        if (queue == null || Thread.currentThread() == writer) {
+            return;
+        }
+        await(submit(() -> { }));
+    }
+
+    /**
+     * Écrit les événements restants puis arrête le thread d'écriture.
+     */
+    public static void shutdown() {
+        Thread thread;
+        synchronized (lock) {
+            thread = writer;
+            if (thread == null) {
+                return;
+            }
+            await(submit(() -> { }));
+            writer = null;
+            queue = null;
+        }
+        thread.interrupt();
+    }
+
+    private static BlockingQueue<Event> queue() {
+        BlockingQueue<Event> current = queue;
+        if (current == null) {
+            synchronized (lock) {
+                if (queue == null) {
+                    BlockingQueue<Event> newQueue = new ArrayBlockingQueue<>(Math.max(1, GlobalProp.getAsyncReportQueueSize()));
+                    Thread thread = new Thread(() -> drain(newQueue), "bcx-report-writer");
+                    thread.setDaemon(true);
+                    thread.start();
+                    writer = thread;
+                    queue = newQueue;
+                }
+                current = queue;
+            }
+        }
+        return current;
+    }
+
+    private static void drain(BlockingQueue<Event> events) {
+        while (true) {
+            Event event;
+            try {
+                event = events.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            event.run();
+        }
+        Event event;
+        while ((event = events.poll()) != null) {
+            event.run();
+        }
+    }
+
+    private static class Event {
+        private final Runnable task;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private Event(Runnable task) {
+            this.task = task;
+        }
+
+        private void run() {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("ReportWriter : échec de l'écriture d'un événement du rapport", e);
+            } finally {
+                done.complete(null);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package bcx.automation.report;
 
 import com.microsoft.playwright.ElementHandle;
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import io.qameta.allure.Allure;
 import io.qameta.allure.model.Status;
@@ -19,6 +20,8 @@ import java.io.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Classe utilitaire pour générer des rapports de test.
@@ -35,6 +38,13 @@ public class Reporter {
     public static final String FAIL_STATUS_NO_SCREENSHOT = "failnoscreenshot";
     public static final String FAIL_NEXT_STATUS_NO_SCREENSHOT = "failnextnoscreenshot";
     public static final String CONTENT_TYPE = "image/png";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final ClassValue<Map<String, String>> PAGE_METHOD_LABELS = new ClassValue<>() {
+        @Override
+        protected Map<String, String> computeValue(Class<?> type) {
+            return type.getName().contains(".pages.") || type.getName().startsWith("pages.") ? new ConcurrentHashMap<>() : null;
+        }
+    };
 
     @Getter
     @Setter
@@ -49,8 +59,11 @@ public class Reporter {
     boolean testSkipped;
     private String previousLog;
     private LocalDateTime timePreviousLog;
+    private CompletableFuture<Void> lastAsyncEvent;
+    private ScreenshotEngine screenshotEngine = new ScreenshotEngine();
 
     private ElementHandle currentElement;
+    private Locator currentLocator;
     @Getter
     @Setter
     private boolean playwrightCmd;
@@ -75,6 +88,7 @@ public class Reporter {
         steps = new ArrayList<>();
         previousLog = "";
         playwrightCmd = true;
+        screenshotEngine = new ScreenshotEngine();
     }
 
     /**
@@ -82,6 +96,7 @@ public class Reporter {
      * @param stepName
      */
     public void startStep(String stepName) {
+        flush();
         String uuid = UUID.randomUUID().toString();
         steps.add(uuid);
         Allure.getLifecycle().startStep(uuid, new StepResult().setName(stepName));
@@ -91,6 +106,7 @@ public class Reporter {
      * termine le step en cours
      */
     public void stopStep() {
+        flush();
         Allure.getLifecycle().stopStep(steps.getLast());
         steps.removeLast();
     }
@@ -99,18 +115,72 @@ public class Reporter {
      * vérifie tous les softasserts pour marquer le test comme échoué
      */
     public void softAssertAll() {
+        flushAll();
         softAssert.assertAll();
     }
 
+    /**
+     * Attend l'écriture des logs et steps Allure déposés en tâche de fond par ce rapport (asyncReport=true).
+     */
+    public void flush() {
+        ReportWriter.await(lastAsyncEvent);
+        lastAsyncEvent = null;
+    }
+
+    /**
+     * Indique si un log déposé en tâche de fond par ce rapport n'a pas encore été attendu par flush.
+     *
+     * @return Vrai si un événement a été déposé depuis le dernier flush.
+     */
+    boolean hasPendingAsyncEvent() {
+        return lastAsyncEvent != null;
+    }
+
+    /**
+     * Attend l'écriture des logs en tâche de fond et des captures d'écran du test dans le rapport.
+     */
+    public void flushAll() {
+        flush();
+        screenshotEngine.await();
+    }
+
     /**
      * definit l'élément playwright courant
      * @param element
      */
     public void setCurrentElement(ElementHandle element) {
         this.currentElement = element;
+        this.currentLocator = null;
+        this.playwrightCmd = true;
+    }
+
+    /**
+     * definit l'élément playwright courant par son locator, le handle n'est récupéré que si une capture le nécessite
+     * @param locator
+     */
+    public void setCurrentLocator(Locator locator) {
+        this.currentElement = null;
+        this.currentLocator = locator;
         this.playwrightCmd = true;
     }
 
+    /**
+     * Renvoie le handle de l'élément courant, en le résolvant depuis son locator si nécessaire.
+     *
+     * @return Le handle de l'élément courant ou null.
+     */
+    private ElementHandle getCurrentElementHandle() {
+        if (currentElement == null && currentLocator != null) {
+            try {
+                currentElement = currentLocator.elementHandle(new Locator.ElementHandleOptions().setTimeout(1000));
+            } catch (Exception e) {
+                // élément disparu
+            }
+            currentLocator = null;
+        }
+        return currentElement;
+    }
+
     /**
      * Vérifie l'égalité entre deux entiers et logue le résultat dans le rapport.
      *
@@ -560,7 +630,8 @@ public class Reporter {
      * @param takeScreenShot Indique si une capture d'écran doit être prise.
      */
     public void log(String status, String messageLog, boolean takeScreenShot) {
-        String threadTimeLog = "[" + Thread.currentThread() + " - " + (LocalDateTime.now()).format(DateTimeFormatter.ofPattern("hh:mm:ss")) + "] ";
+        Thread thread = Thread.currentThread();
+        LocalDateTime logTime = LocalDateTime.now();
         messageLog = (messageLog == null ? "" : messageLog);
         if (status.contains("noscreenshot") || messageLog.contains("[noscreenshot]")) {
             takeScreenShot = false;
@@ -579,7 +650,12 @@ public class Reporter {
                 status = FAIL_STATUS;
             }
 
-            String slf4jMessage = threadTimeLog + messageLog;
+            if (GlobalProp.isAsyncReport() && (status.equals(PASS_STATUS) || status.equals(INFO_STATUS) || (status.equals(WARNING_STATUS) && !takeScreenShot))) {
+                logAsync(status, messageLog, thread, logTime);
+                return;
+            }
+            flush();
+            String slf4jMessage = threadTimeLog(thread, logTime) + messageLog;
 
 
             switch (status) {
@@ -613,6 +689,46 @@ public class Reporter {
         }
     }
 
+    /**
+     * Dépose un log sans capture d'écran dans la file de l'écrivain en tâche de fond : le log SLF4J, le step Allure
+     * et la mise à jour du statut des steps ouverts sont écrits hors du thread du test, le step étant rattaché
+     * explicitement au step ou au test courant.
+     *
+     * @param status Le statut (pass, info ou warning).
+     * @param messageLog Le message à loguer.
+     * @param thread Le thread du test.
+     * @param logTime L'heure du log.
+     */
+    private void logAsync(String status, String messageLog, Thread thread, LocalDateTime logTime) {
+        String parentUuid = Allure.getLifecycle().getCurrentTestCaseOrStep().orElse(null);
+        List<String> openSteps = List.copyOf(steps);
+        lastAsyncEvent = ReportWriter.submit(() -> {
+            String slf4jMessage = threadTimeLog(thread, logTime) + messageLog;
+            if (status.equals(WARNING_STATUS)) {
+                log.warn(slf4jMessage);
+            } else {
+                log.info(slf4jMessage);
+            }
+            if (parentUuid != null) {
+                String uuid = UUID.randomUUID().toString();
+                Allure.getLifecycle().startStep(parentUuid, uuid, new StepResult().setName(messageLog).setStatus(Status.PASSED));
+                Allure.getLifecycle().stopStep(uuid);
+            }
+            updateStepStatus(openSteps, toAllureStatus(status.equals(WARNING_STATUS) ? WARNING_STATUS : PASS_STATUS));
+        });
+    }
+
+    /**
+     * Renvoie l'entête thread et heure des logs SLF4J.
+     *
+     * @param thread Le thread du test.
+     * @param logTime L'heure du log.
+     * @return L'entête du log.
+     */
+    private static String threadTimeLog(Thread thread, LocalDateTime logTime) {
+        return "[" + thread + " - " + logTime.format(DateTimeFormatter.ofPattern("hh:mm:ss")) + "] ";
+    }
+
     /**
      * Propage l'état de l'étape Allure du step fils au parent.
      * @param messageLog
@@ -621,12 +737,6 @@ public class Reporter {
     private void propagateAllureStep(String messageLog, String status, boolean takeScreenShot) {
         if (takeScreenShot) startStep(messageLog);
         Allure.step(messageLog);
-        Status allureStatus = Status.PASSED;
-        switch (status) {
-            case SKIP_STATUS -> allureStatus = Status.SKIPPED;
-            case FAIL_STATUS -> allureStatus = Status.FAILED;
-            case WARNING_STATUS -> allureStatus = Status.BROKEN;
-        }
         if (takeScreenShot) {
             if (isPlaywrightCmd()) {
                 takeScreenShot(messageLog, status, true);
@@ -634,8 +744,36 @@ public class Reporter {
                 takeScreenShotAppium(messageLog);
             }
         }
+        updateStepStatus(steps, toAllureStatus(status));
+        if (takeScreenShot) stopStep();
+    }
+
+    /**
+     * Convertit un statut du rapport en statut Allure.
+     *
+     * @param status Le statut du rapport.
+     * @return Le statut Allure.
+     */
+    private static Status toAllureStatus(String status) {
+        Status allureStatus = Status.PASSED;
+        switch (status) {
+            case SKIP_STATUS -> allureStatus = Status.SKIPPED;
+            case FAIL_STATUS -> allureStatus = Status.FAILED;
+            case WARNING_STATUS -> allureStatus = Status.BROKEN;
+        }
+        return allureStatus;
+    }
+
+    /**
+     * Met à jour le statut des steps ouverts : le premier prend le statut du log, les autres ne prennent que
+     * les statuts plus graves que le leur.
+     *
+     * @param stepUuids Les uuid des steps ouverts, du plus ancien au plus récent.
+     * @param allureStatus Le statut Allure du log.
+     */
+    private static void updateStepStatus(List<String> stepUuids, Status allureStatus) {
         boolean lastStep = true;
-        for (String uuid : steps) {
+        for (String uuid : stepUuids) {
             Status finalStatus = allureStatus;
             boolean finalLastStep = lastStep;
             Allure.getLifecycle().updateStep(uuid, stepResult -> {
@@ -649,25 +787,26 @@ public class Reporter {
             });
             lastStep = false;
         }
-        if (takeScreenShot) stopStep();
     }
 
 
     /**
      * Renvoie la page et la méthode à partir desquelles le log a été déclenché.
+     * La pile est parcourue paresseusement jusqu'à la première classe de page, et le libellé est mis en cache
+     * par classe et par méthode.
      *
      * @return La page et la méthode.
      */
     private String getPageMethod() {
-        StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
-        StackTraceElement stackTraceElement = null;
-        for (StackTraceElement stack : stackTraceElements) {
-            if (stack.getClassName().contains(".pages.") || stack.getClassName().startsWith("pages.")) {
-                stackTraceElement = stack;
-                break;
-            }
-        }
-        return stackTraceElement != null ? "[" + stackTraceElement.getClassName() + "." + stackTraceElement.getMethodName() + "] " : "";
+        return STACK_WALKER.walk(frames -> frames
+                .map(frame -> {
+                    Map<String, String> labels = PAGE_METHOD_LABELS.get(frame.getDeclaringClass());
+                    return labels == null ? null : labels.computeIfAbsent(frame.getMethodName(),
+                            methodName -> "[" + frame.getClassName() + "." + methodName + "] ");
+                })
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(""));
     }
 
     /**
@@ -680,19 +819,18 @@ public class Reporter {
     }
 
     /**
-     * Ajoute une capture d'écran.
+     * Ajoute une capture d'écran, jointe au rapport en tâche de fond par le ScreenshotEngine du test.
      *
      * @param titre titre photo.
      * @param status statut du log.
      * @param highlightLastField Indique si le dernier champ doit être mis en surbrillance.
      */
     public void takeScreenShot(String titre, String status, boolean highlightLastField) {
+        flush();
         try {
             centerCurrentElement();
             if (highlightLastField) highlight(status.equals(FAIL_STATUS) ? "red" : "green");
-            byte[] screenshot = page.screenshot(new Page.ScreenshotOptions().setFullPage(true));
-            Allure.addAttachment(titre, CONTENT_TYPE,
-                    new ByteArrayInputStream(screenshot), ".png");
+            screenshotEngine.capture(page, titre, status, getCurrentElementHandle());
         } catch (Exception e) {
             // Ignorer
         }
@@ -725,22 +863,23 @@ public class Reporter {
                 new java.io.ByteArrayInputStream(Base64.getDecoder().decode(imageBase64)), ".png");
     }
 
+    /**
+     * Joint la vidéo au rapport, sans copie, par le VideoManager.
+     *
+     * @param videoPath Le chemin de la vidéo.
+     */
     public void attachVideoToAllure(String videoPath) {
-        try {
-            File videoFile = new File(videoPath);
-            Allure.addAttachment("Vidéo Playwright", "video/webm", new FileInputStream(videoFile), "webm");
-        } catch (Exception ignore) {
-            ignore.printStackTrace();
-        }
+        VideoManager.attach(videoPath);
     }
 
     /**
      * Centre l'élément courant au milieu de la page.
      */
     private void centerCurrentElement() {
-        if (currentElement != null) {
+        ElementHandle element = getCurrentElementHandle();
+        if (element != null) {
             try {
-                (currentElement).evaluate("el => el.scrollIntoView({block: 'center'})");
+                element.evaluate("el => el.scrollIntoView({block: 'center'})");
             } catch (Exception ex) {
                 // Ignorer
             }
@@ -765,8 +904,9 @@ public class Reporter {
      */
     private void highlight(String color) {
         try {
-            if (currentElement != null) {
-                currentElement.evaluate("(el, color) => { " +
+            ElementHandle element = getCurrentElementHandle();
+            if (element != null) {
+                element.evaluate("(el, color) => { " +
                         "var parent = el.parentNode;" +
                         "var reportseleniumhighlightdiv = document.createElement('div');" +
                         "reportseleniumhighlightdiv.setAttribute('id', 'reportseleniumhighlightdiv');" +
@@ -0,0 +1,267 @@
+package bcx.automation.report;
+
+import bcx.automation.properties.GlobalProp;
+import com.microsoft.playwright.ElementHandle;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.BoundingBox;
+import com.microsoft.playwright.options.ScreenshotType;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.ExecutableItem;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Moteur de captures d'écran d'un test.
+ * La capture est prise sur le thread du test (Playwright n'est pas thread-safe), au format et à la qualité définis
+ * par screenshotFormat et screenshotQuality, sur la zone définie par screenshotMode ou screenshotFailMode
+ * (viewport, element ou fullPage). Sur ce même thread, la pièce jointe est déclarée dans le step ou le test Allure courant :
+ * elle est donc présente avant l'écriture du résultat du test. Le reste est fait par un pool de threads, dans l'ordre
+ * des captures du test : une capture identique à la précédente (empreinte perceptuelle dHash) ou dépassant le budget
+ * d'octets du test est écartée, sauf en fail et skip, et sa déclaration retirée ; sinon le fichier est écrit.
+ * Le ReportFlushListener attend ces traitements avant l'écriture du résultat du test.
+ */
+@Slf4j
+public class ScreenshotEngine {
+    public static final String MODE_VIEWPORT = "viewport";
+    public static final String MODE_ELEMENT = "element";
+    public static final String MODE_FULL_PAGE = "fullPage";
+    private static final int ELEMENT_MARGIN = 50;
+    private static final int AWAIT_TIMEOUT_SECONDS = 60;
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final Object lock = new Object();
+    private static final ThreadLocal<ScreenshotEngine> currentEngine = new ThreadLocal<>();
+    private static volatile ExecutorService executor;
+
+    private long bytesUsed;
+    private volatile boolean budgetExceeded;
+    private long lastHash;
+    private boolean hasLastHash;
+    private CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+
+    /**
+     * Prend une capture d'écran de la page, la déclare dans le step ou le test Allure courant et la joint en tâche de fond.
+     *
+     * @param page La page.
+     * @param titre Le titre de la capture.
+     * @param status Le statut du log, détermine la zone capturée.
+     * @param element L'élément courant, utilisé en mode element, peut être null.
+     */
+    public void capture(Page page, String titre, String status, ElementHandle element) {
+        boolean mandatory = isMandatory(status);
+        if (budgetExceeded && !mandatory) {
+            return;
+        }
+        ExecutableItem target = currentAllureItem();
+        if (target == null) {
+            return;
+        }
+        boolean jpeg = !"png".equalsIgnoreCase(GlobalProp.getScreenshotFormat());
+        Page.ScreenshotOptions options = screenshotOptions(status, element);
+        if (jpeg) {
+            options.setType(ScreenshotType.JPEG).setQuality(GlobalProp.getScreenshotQuality());
+        }
+        byte[] screenshot = page.screenshot(options);
+        Attachment attachment = new Attachment().setName(titre)
+                .setSource(UUID.randomUUID() + "-attachment." + (jpeg ? "jpg" : "png"))
+                .setType(jpeg ? "image/jpeg" : Reporter.CONTENT_TYPE);
+        List<Attachment> attachments = target.getAttachments();
+        synchronized (attachments) {
+            attachments.add(attachment);
+        }
+        currentEngine.set(this);
+        chain = chain.thenRunAsync(() -> {
+            if (!mandatory && (isDuplicate(screenshot) || isOverBudget(screenshot))) {
+                synchronized (attachments) {
+                    attachments.remove(attachment);
+                }
+            } else {
+                write(titre, attachment.getSource(), screenshot);
+            }
+        }, executor());
+    }
+
+    /**
+     * Attend que toutes les captures déjà prises soient jointes au rapport.
+     */
+    public void await() {
+        try {
+            chain.get(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("ScreenshotEngine : attente des captures d'écran interrompue", e);
+        }
+    }
+
+    /**
+     * Attend les captures prises par le moteur le plus récemment utilisé sur le thread courant.
+     */
+    public static void awaitCurrentThread() {
+        ScreenshotEngine engine = currentEngine.get();
+        if (engine != null) {
+            engine.await();
+        }
+    }
+
+    /**
+     * Termine le traitement des captures en cours puis arrête le pool de threads.
+     */
+    public static void shutdown() {
+        ExecutorService current;
+        synchronized (lock) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("ScreenshotEngine : captures d'écran toujours en cours de traitement");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Page.ScreenshotOptions screenshotOptions(String status, ElementHandle element) {
+        String mode = Reporter.FAIL_STATUS.equals(status) ? GlobalProp.getScreenshotFailMode() : GlobalProp.getScreenshotMode();
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions();
+        if (MODE_FULL_PAGE.equalsIgnoreCase(mode)) {
+            options.setFullPage(true);
+        } else if (MODE_ELEMENT.equalsIgnoreCase(mode) && element != null) {
+            BoundingBox box = element.boundingBox();
+            if (box != null) {
+                double x = Math.max(0, box.x - ELEMENT_MARGIN);
+                double y = Math.max(0, box.y - ELEMENT_MARGIN);
+                options.setClip(x, y, box.width + box.x - x + ELEMENT_MARGIN, box.height + box.y - y + ELEMENT_MARGIN);
+            }
+        }
+        return options;
+    }
+
+    private static boolean isMandatory(String status) {
+        return status != null && (status.startsWith(Reporter.FAIL_STATUS) || status.startsWith(Reporter.SKIP_STATUS));
+    }
+
+    private boolean isDuplicate(byte[] screenshot) {
+        if (!GlobalProp.isScreenshotDedup()) {
+            return false;
+        }
+        try {
+            long hash = differenceHash(screenshot);
+            boolean duplicate = hasLastHash && Long.bitCount(hash ^ lastHash) <= GlobalProp.getScreenshotDedupDistance();
+            lastHash = hash;
+            hasLastHash = true;
+            return duplicate;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isOverBudget(byte[] screenshot) {
+        long budget = GlobalProp.getScreenshotBudgetKb() * 1024L;
+        if (budget <= 0) {
+            return false;
+        }
+        bytesUsed += screenshot.length;
+        if (bytesUsed > budget) {
+            if (!budgetExceeded) {
+                budgetExceeded = true;
+                log.warn("ScreenshotEngine : budget de " + GlobalProp.getScreenshotBudgetKb() + " Ko de captures atteint, captures suivantes ignorées hors fail et skip");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void write(String titre, String source, byte[] screenshot) {
+        try {
+            Allure.getLifecycle().writeAttachment(source, new ByteArrayInputStream(screenshot));
+        } catch (Exception e) {
+            log.warn("ScreenshotEngine : impossible d'écrire la capture " + titre, e);
+        }
+    }
+
+    /**
+     * Calcule l'empreinte perceptuelle dHash (64 bits) d'une image : comparaison des luminosités voisines
+     * d'une réduction 9x8 en niveaux de gris.
+     *
+     * @param image L'image encodée.
+     * @return L'empreinte de l'image.
+     */
+    private static long differenceHash(byte[] image) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+        if (source == null) {
+            return 0;
+        }
+        BufferedImage reduced = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = reduced.createGraphics();
+        graphics.drawImage(source, 0, 0, 9, 8, null);
+        graphics.dispose();
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash <<= 1;
+                if (reduced.getRaster().getSample(x, y, 0) > reduced.getRaster().getSample(x + 1, y, 0)) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Renvoie le step Allure courant, ou le test s'il n'y a pas de step ouvert.
+     *
+     * @return L'élément Allure courant, ou null hors d'un test.
+     */
+    static ExecutableItem currentAllureItem() {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        Optional<String> current = lifecycle.getCurrentTestCaseOrStep();
+        if (current.isEmpty()) {
+            return null;
+        }
+        AtomicReference<ExecutableItem> item = new AtomicReference<>();
+        if (current.equals(lifecycle.getCurrentTestCase())) {
+            lifecycle.updateTestCase(current.get(), item::set);
+        } else {
+            lifecycle.updateStep(current.get(), item::set);
+        }
+        return item.get();
+    }
+
+    private static ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (lock) {
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(Math.max(1, GlobalProp.getScreenshotWorkers()), r -> {
+                        Thread thread = new Thread(r, "bcx-screenshot-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                current = executor;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,160 @@
+package bcx.automation.report;
+
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.ExecutableItem;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gestion en tâche de fond des vidéos Playwright.
+ * Une vidéo jointe au rapport est liée physiquement (hard link) dans le dossier des résultats Allure, sans copie :
+ * le lien suit l'écriture de la vidéo jusqu'à la fermeture du navigateur. Si le lien est impossible (autre système
+ * de fichiers), la vidéo est copiée après la fermeture du navigateur. Les vidéos non jointes sont supprimées par lot.
+ */
+@Slf4j
+public class VideoManager {
+    private static final String CONTENT_TYPE = "video/webm";
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 120;
+    private static final Map<String, Boolean> videos = new ConcurrentHashMap<>();
+    private static final Map<String, Path> pendingCopies = new ConcurrentHashMap<>();
+    private static final Object lock = new Object();
+    private static volatile ExecutorService executor;
+
+    private VideoManager() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Joint la vidéo au step ou au test Allure courant et la lie dans le dossier des résultats Allure en tâche de fond.
+     *
+     * @param videoPath Le chemin de la vidéo.
+     */
+    public static void attach(String videoPath) {
+        ExecutableItem target = ScreenshotEngine.currentAllureItem();
+        if (target == null) {
+            return;
+        }
+        String source = UUID.randomUUID() + "-attachment.webm";
+        synchronized (target) {
+            target.getAttachments().add(new Attachment().setName("Vidéo Playwright").setSource(source).setType(CONTENT_TYPE));
+        }
+        videos.put(videoPath, false);
+        Path link = resultsDirectory().resolve(source);
+        submit(() -> {
+            try {
+                Files.createDirectories(link.getParent());
+                Files.createLink(link, Paths.get(videoPath));
+            } catch (IOException | UnsupportedOperationException e) {
+                pendingCopies.put(videoPath, link);
+            }
+        });
+    }
+
+    /**
+     * Marque la vidéo à supprimer si elle n'a pas été jointe au rapport.
+     *
+     * @param videoPath Le chemin de la vidéo.
+     */
+    public static void discard(String videoPath) {
+        videos.putIfAbsent(videoPath, true);
+    }
+
+    /**
+     * À appeler après la fermeture du navigateur : copie la vidéo jointe qui n'a pas pu être liée,
+     * puis supprime le fichier d'origine si demandé, en tâche de fond.
+     *
+     * @param videoPath Le chemin de la vidéo.
+     * @param delete Indique si le fichier d'origine doit être supprimé.
+     */
+    public static void release(String videoPath, boolean delete) {
+        submit(() -> {
+            copyPending(videoPath);
+            if (delete) {
+                delete(videoPath);
+            }
+        });
+    }
+
+    /**
+     * Supprime en tâche de fond, en un seul lot, les vidéos marquées à supprimer.
+     */
+    public static void deleteDiscarded() {
+        submit(() -> videos.forEach((videoPath, toDelete) -> {
+            if (Boolean.TRUE.equals(toDelete)) {
+                delete(videoPath);
+            }
+        }));
+    }
+
+    /**
+     * Termine les copies et suppressions en cours puis arrête le thread de traitement.
+     */
+    public static void shutdown() {
+        ExecutorService current;
+        synchronized (lock) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.submit(() -> pendingCopies.keySet().forEach(VideoManager::copyPending));
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("VideoManager : traitements des vidéos toujours en cours");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void copyPending(String videoPath) {
+        Path link = pendingCopies.remove(videoPath);
+        if (link != null) {
+            try {
+                Files.copy(Paths.get(videoPath), link, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                log.warn("VideoManager : impossible de copier la vidéo " + videoPath, e);
+            }
+        }
+    }
+
+    private static void delete(String videoPath) {
+        try {
+            Files.deleteIfExists(Paths.get(videoPath));
+            videos.remove(videoPath);
+        } catch (IOException e) {
+            // vidéo encore ouverte, supprimée au prochain lot
+        }
+    }
+
+    private static Path resultsDirectory() {
+        return Paths.get(System.getProperty("allure.results.directory", "target/allure-results"));
+    }
+
+    private static void submit(Runnable task) {
+        synchronized (lock) {
+            if (executor == null) {
+                executor = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "bcx-video");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            executor.submit(task);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package bcx.automation.test;
 
+import bcx.automation.playwright.BrowserLauncher;
+import bcx.automation.playwright.BrowserPool;
 import bcx.automation.playwright.PlaywrightBrowser;
 import bcx.automation.properties.EnvProp;
 import lombok.extern.slf4j.Slf4j;
@@ -7,26 +9,24 @@ import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 import bcx.automation.properties.GlobalProp;
+import bcx.automation.report.ReportWriter;
 import bcx.automation.report.Reporter;
+import bcx.automation.report.ScreenshotEngine;
+import bcx.automation.report.VideoManager;
 import bcx.automation.util.bdd.BDDUtil;
+import bcx.automation.util.bdd.ConnectionPool;
 import com.microsoft.playwright.*;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.lang.reflect.Method;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Classe de base pour les tests utilisant Playwright et TestNG.
  */
 @Slf4j
 public class BaseTest {
-    private static Map<String, TestContext> testContexts = new HashMap<>();
-    private static Map<String, Boolean> videoPaths = new HashMap<>();
     public TestContext testContext;
 
     /**
@@ -48,15 +48,34 @@ public class BaseTest {
             writer.write("Environment=" + System.getProperty("env") + "\n");
             writer.close();
 
+            if (GlobalProp.isBrowserPool()) BrowserPool.prewarm(GlobalProp.getBrowserPoolSize());
+
             log.info("END Before suite***************************************" );
         } catch (Exception e) {
             log.error("beforeSuiteCommon exception", e);
         }
     }
 
+    /**
+     * Méthode exécutée après la suite de tests.
+     * Termine l'écriture du rapport et des captures en tâche de fond, ferme les navigateurs restés disponibles dans le pool ou pré-lancés,
+     * ferme les connexions BDD libres, et logue les métriques de lancement et des pools de connexions.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void afterSuiteCommon() {
+        log.info("After suite***************************************" );
+        ReportWriter.shutdown();
+        ScreenshotEngine.shutdown();
+        VideoManager.shutdown();
+        ConnectionPool.closeAll();
+        BrowserLauncher.shutdown();
+        BrowserPool.shutdown();
+        log.info("END After suite***************************************" );
+    }
+
     /**
      * Méthode exécutée avant chaque méthode de test.
-     * Initialise la page et le rapport pour la méthode de test.
+     * Initialise la page, ou son démarrage au premier accès si lazyBrowserStart=true, et le rapport pour la méthode de test.
      *
      * @param iTestContext Le contexte du test.
      * @param method La méthode de test.
@@ -65,13 +84,9 @@ public class BaseTest {
     public void beforeMethodCommon(ITestContext iTestContext, Method method) {
         String testName = (method.getDeclaringClass().getSimpleName() + "." + method.getName()).replace(".run", "");
         log.info(Thread.currentThread() + " Before method***************************************" + testName);
-        if (testContexts.containsKey(getThreadId())) {
-            testContext = testContexts.get(getThreadId());
-        } else {
-            testContext = new TestContext();
-            testContexts.put(getThreadId(), testContext);
-        }
-        if (testContext.getPage() == null) PlaywrightBrowser.startNewBrowser(testContext);
+        testContext = TestContextRegistry.lease();
+        testContext.setStartBrowserOnDemand(GlobalProp.isLazyBrowserStart() && !isBrowserless(method));
+        if (!GlobalProp.isLazyBrowserStart() && !isBrowserless(method) && !testContext.hasPage()) PlaywrightBrowser.startNewBrowser(testContext);
         testContext.getReport().initTest();
         if (GlobalProp.isSuiteOverTimeOut()) testContext.getReport().log(Reporter.SKIP_STATUS, "Timeout : la suite a dépassé le temps maximum prévu");
         log.info(Thread.currentThread() + " END Before method***************************************" + testName);
@@ -79,7 +94,7 @@ public class BaseTest {
 
     /**
      * Méthode exécutée après chaque méthode de test.
-     * Gère la fermeture du navigateur et la suppression des vidéos enregistrées.
+     * Gère la fermeture du navigateur, ou le recyclage de son contexte, et la suppression des vidéos enregistrées.
      *
      * @param result Le résultat du test.
      * @param method La méthode de test.
@@ -88,13 +103,20 @@ public class BaseTest {
     public void afterMethodCommon(ITestResult result, Method method) {
         String testName = (method.getDeclaringClass().getSimpleName() + "." + method.getName()).replace(".run", "");
         log.info(Thread.currentThread() + " After method***************************************" + testName);
-        if (GlobalProp.isCloseBrowserAfterMethod()) testContext.closeBrowsersAndDriver();
+        if (GlobalProp.isCloseBrowserAfterMethod()) {
+            if (!GlobalProp.isBrowserPool() && testContext.getBrowserType() != null) {
+                BrowserLauncher.prelaunch(testContext.getBrowserType(), testContext.getProxy(), testContext.getContextLocale());
+            }
+            testContext.closeBrowsersAndDriver();
+        } else if (GlobalProp.isRecycleContextAfterMethod()) {
+            testContext.recycleContext();
+        }
         log.info(Thread.currentThread() + " END After method***************************************" + testName);
     }
 
     /**
      * Méthode exécutée après chaque test.
-     * Ferme le navigateur et supprime les vidéos enregistrées.
+     * Ferme le navigateur, lance la suppression par lot des vidéos non jointes et déconnecte les bases de données.
      *
      * @param iTestContext Le contexte du test.
      */
@@ -103,20 +125,22 @@ public class BaseTest {
         log.info(Thread.currentThread() + " After test***************************************" + iTestContext.getName());
         if (testContext != null) testContext.closeBrowsersAndDriver();
         testContext = null;
-        testContexts.remove(getThreadId());
-        for (Map.Entry<String, Boolean> videoPath : videoPaths.entrySet()) {
-            try {
-                if (Boolean.TRUE.equals(videoPath.getValue())) {
-                    Files.deleteIfExists(Paths.get(videoPath.getKey()));
-                }
-            } catch (Exception ignore) {
-                // ignore
-            }
-            BDDUtil.deconnecterDB();
-        }
+        TestContextRegistry.release();
+        VideoManager.deleteDiscarded();
+        BDDUtil.deconnecterDB();
         log.info(Thread.currentThread() + " END After test***************************************" + iTestContext.getName());
     }
 
+    /**
+     * Indique si la méthode de test, ou sa classe, est annotée @Browserless.
+     *
+     * @param method La méthode de test.
+     * @return Vrai si le test n'utilise pas de navigateur.
+     */
+    private static boolean isBrowserless(Method method) {
+        return method.isAnnotationPresent(Browserless.class) || method.getDeclaringClass().isAnnotationPresent(Browserless.class);
+    }
+
     /**
      * Renvoie le rapporteur associé au contexte de test.
      *
@@ -130,39 +154,22 @@ public class BaseTest {
      * à appeler à la fin de chaque test : publie les vidéos et vérifie les softAssert
      */
     public void endTest() {
-        Page page = testContext.getPage();
+        Page page = testContext.hasPage() ? testContext.getPage() : null;
         Reporter report = testContext.getReport();
-        Path videoPath = page.video().path();
-        if (GlobalProp.getRecordVideo().equals("always") || (report.isInError() && GlobalProp.getRecordVideo().equals("onFailure"))) {
-            report.attachVideoToAllure(videoPath.toString());
-            videoPaths.put(videoPath.toString(), false);
-        } else {
-            if (videoPath != null && !videoPaths.containsKey(videoPath.toString())) {
-                videoPaths.put(videoPath.toString(), true);
+        Path videoPath = page != null && page.video() != null ? page.video().path() : null;
+        if (videoPath != null) {
+            if (GlobalProp.getRecordVideo().equals("always") || (report.isInError() && GlobalProp.getRecordVideo().equals("onFailure"))) {
+                report.attachVideoToAllure(videoPath.toString());
+            } else {
+                VideoManager.discard(videoPath.toString());
             }
         }
         if (GlobalProp.isCloseBrowserAfterMethod()) {
             testContext.closeBrowsersAndDriver();
-            testContexts.remove(getThreadId());
-            if (videoPath != null) {
-                try {
-                    Files.deleteIfExists(videoPath);
-                    videoPaths.remove(videoPath.toString());
-                } catch (Exception ignore) {
-                    // ignore
-                }
-            }
+            TestContextRegistry.release();
+            if (videoPath != null) VideoManager.release(videoPath.toString(), true);
         }
         report.softAssertAll();
     }
 
-    /**
-     * Renvoie l'identifiant du thread courant.
-     *
-     * @return L'identifiant du thread courant.
-     */
-    private static String getThreadId() {
-        return Thread.currentThread().toString();
-    }
-
 }
@@ -0,0 +1,15 @@
+package bcx.automation.test;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marque une méthode ou une classe de test qui n'utilise pas de navigateur (appels WS, BDD, FTP...) :
+ * BaseTest ne démarre pas Playwright avant ses méthodes de test.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Browserless {
+}
@@ -1,7 +1,10 @@
 package bcx.automation.test;
 
+import bcx.automation.playwright.BrowserPool;
+import bcx.automation.playwright.LaunchedBrowser;
 import bcx.automation.playwright.PlaywrightBrowser;
 import bcx.automation.report.Reporter;
+import bcx.automation.util.app.ConnectedUserUtil;
 import com.microsoft.playwright.*;
 import io.appium.java_client.AppiumDriver;
 import lombok.Getter;
@@ -25,7 +28,6 @@ public class TestContext {
     @Getter
     @Setter
     private BrowserContext browserContext;
-    @Getter
     private Page page;
     @Getter
     @Setter
@@ -39,6 +41,25 @@ public class TestContext {
     @Getter
     @Setter
     private AppiumDriver appiumDriver;
+    @Getter
+    @Setter
+    private LaunchedBrowser pooledBrowser;
+    @Getter
+    @Setter
+    private String browserType;
+    @Getter
+    @Setter
+    private String proxy;
+    @Getter
+    @Setter
+    private String contextLocale;
+    @Setter
+    private String credentialUser;
+    @Setter
+    private String credentialPassword;
+    @Getter
+    @Setter
+    private boolean startBrowserOnDemand;
 
     /**
      * Constructeur par défaut de la classe TestContext.
@@ -52,6 +73,34 @@ public class TestContext {
         this.otherTabs = new ArrayList<>();
         this.otherContexts = new ArrayList<>();
         this.appiumDriver = null;
+        this.pooledBrowser = null;
+    }
+
+    /**
+     * Renvoie la page actuelle. Si le démarrage à la demande est activé (lazyBrowserStart) et qu'aucun navigateur
+     * n'est ouvert, le navigateur est démarré à ce premier accès. Le démarrage n'est tenté qu'une fois par test :
+     * en cas d'échec, les accès suivants renvoient null sans relancer le navigateur.
+     *
+     * @return La page actuelle.
+     */
+    public Page getPage() {
+        if (page == null && startBrowserOnDemand) {
+            startBrowserOnDemand = false;
+            PlaywrightBrowser.startNewBrowser(this);
+            if (page == null) {
+                log.warn("Démarrage à la demande du navigateur en échec, pas de nouvelle tentative pour ce test");
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Indique si une page est ouverte, sans démarrer de navigateur.
+     *
+     * @return Vrai si une page est ouverte.
+     */
+    public boolean hasPage() {
+        return page != null;
     }
 
     /**
@@ -70,10 +119,21 @@ public class TestContext {
     public void closeBrowsersAndDriver() {
         closeOtherTabs();
         closeOtherContexts();
-        if (browser != null) {
+        if (pooledBrowser != null) {
+            if (browserContext != null) {
+                try {
+                    browserContext.close();
+                } catch (Exception e) {
+                    log.warn("Échec de la fermeture du contexte de navigateur", e);
+                }
+            }
+            BrowserPool.release(pooledBrowser);
+            pooledBrowser = null;
+        } else if (browser != null) {
             browser.close();
             playwright.close();
         }
+        playwright = null;
         browser = null;
         browserContext = null;
         page = null;
@@ -83,6 +143,42 @@ public class TestContext {
         }
     }
 
+    /**
+     * Recycle le contexte de navigateur : ferme le BrowserContext et ses pages (cookies, storage et permissions
+     * sont ainsi perdus) puis en ouvre un nouveau sur le même navigateur, sans relancer Playwright.
+     * Si le navigateur n'est plus utilisable, il est fermé et sera relancé au prochain test.
+     */
+    public void recycleContext() {
+        if (browser == null || !browser.isConnected()) {
+            closeBrowsersAndDriver();
+            return;
+        }
+        forgetConnectedUsers();
+        closeOtherTabs();
+        closeOtherContexts();
+        try {
+            if (browserContext != null) browserContext.close();
+            PlaywrightBrowser.openContext(this, browser, contextLocale, credentialUser, credentialPassword);
+        } catch (Exception e) {
+            log.error("Échec du recyclage du contexte de navigateur, le navigateur sera relancé", e);
+            closeBrowsersAndDriver();
+        }
+    }
+
+    /**
+     * Efface les utilisateurs connectés sur les pages de ce contexte et des contextes secondaires.
+     */
+    private void forgetConnectedUsers() {
+        if (browserContext != null) {
+            for (Page contextPage : browserContext.pages()) {
+                ConnectedUserUtil.remove(contextPage);
+            }
+        }
+        for (TestContext context : otherContexts) {
+            context.forgetConnectedUsers();
+        }
+    }
+
     /**
      * Ferme tous les onglets autres que l'onglet principal.
      */
@@ -98,7 +194,7 @@ public class TestContext {
      */
     public void closeOtherContexts() {
         for (TestContext context : otherContexts) {
-            context.getBrowser().close();
+            context.closeBrowsersAndDriver();
         }
         otherContexts.clear();
     }
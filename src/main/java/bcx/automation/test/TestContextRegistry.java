@@ -0,0 +1,59 @@
+package bcx.automation.test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des contextes de test par thread.
+ * Chaque thread de test prend un contexte par lease et le rend par release ; la clé est l'identité du thread,
+ * ce qui évite l'allocation d'une chaîne à chaque recherche et les collisions après un renommage du thread.
+ * Les contextes des threads terminés sans release sont retirés au lease suivant.
+ */
+public class TestContextRegistry {
+    private static final Map<Thread, TestContext> contexts = new ConcurrentHashMap<>();
+
+    private TestContextRegistry() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Renvoie le contexte du thread courant, en le créant s'il n'existe pas encore.
+     *
+     * @return Le contexte de test du thread courant.
+     */
+    public static TestContext lease() {
+        TestContext testContext = contexts.get(Thread.currentThread());
+        if (testContext == null) {
+            contexts.keySet().removeIf(thread -> !thread.isAlive());
+            testContext = contexts.computeIfAbsent(Thread.currentThread(), thread -> new TestContext());
+        }
+        return testContext;
+    }
+
+    /**
+     * Renvoie le contexte du thread courant sans le créer.
+     *
+     * @return Le contexte de test du thread courant, ou null.
+     */
+    public static TestContext current() {
+        return contexts.get(Thread.currentThread());
+    }
+
+    /**
+     * Rend le contexte du thread courant : le prochain lease de ce thread créera un nouveau contexte.
+     *
+     * @return Le contexte rendu, ou null si le thread n'en avait pas.
+     */
+    public static TestContext release() {
+        return contexts.remove(Thread.currentThread());
+    }
+
+    /**
+     * Renvoie le nombre de contextes en cours d'utilisation.
+     *
+     * @return Le nombre de contextes.
+     */
+    public static int size() {
+        return contexts.size();
+    }
+}
@@ -0,0 +1,26 @@
+package bcx.automation.test;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fabrique de pools TestNG exécutant les tests sur des threads virtuels Java 21.
+ * Destinée aux suites de tests @Browserless (WS, BDD, FTP) qui passent l'essentiel de leur temps en I/O bloquantes :
+ * un thread-count de plusieurs centaines ne consomme alors que quelques threads système.
+ * S'active avec l'option TestNG -threadpoolfactoryclass bcx.automation.test.VirtualThreadExecutorFactory.
+ * Les suites avec navigateur restent sur des threads système, Playwright bloquant ses threads porteurs.
+ */
+public class VirtualThreadExecutorFactory implements IExecutorServiceFactory {
+    private static final ThreadFactory VIRTUAL_THREADS = Thread.ofVirtual().name("bcx-vt-", 1).factory();
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, VIRTUAL_THREADS);
+    }
+}
@@ -0,0 +1,219 @@
+package bcx.automation.util.app;
+
+import bcx.automation.properties.GlobalProp;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.SameSiteAttribute;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cache des états d'authentification (storageState Playwright : cookies et localStorage) par utilisateur.
+ * Le premier login d'un utilisateur enregistre l'état, les tests suivants le restaurent dans leur BrowserContext
+ * sans repasser par la page de login. Les états sont conservés en mémoire et, en option, sous target/auth-states.
+ * Le cache n'est actif que si authLoginPageMarker est renseigné : sans marqueur, une session expirée côté serveur
+ * ne serait pas détectée. Les identifiants d'une authentification HTTP basique (passés dans l'URL) ne font pas partie
+ * du storageState et ne sont pas mis en cache : seules les sessions portées par les cookies et le localStorage le sont.
+ */
+@Slf4j
+public class AuthStateCache {
+    private static final String PERSIST_FOLDER = "target/auth-states";
+    private static final Map<String, AuthState> states = new ConcurrentHashMap<>();
+    private static final AtomicBoolean missingMarkerLogged = new AtomicBoolean();
+
+    private AuthStateCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Indique si le cache des états d'authentification est activé : authStateCache est vrai et authLoginPageMarker est renseigné.
+     *
+     * @return Vrai si le cache est activé.
+     */
+    public static boolean isEnabled() {
+        if (!GlobalProp.isAuthStateCache()) {
+            return false;
+        }
+        String marker = GlobalProp.getAuthLoginPageMarker();
+        if (marker == null || marker.isBlank()) {
+            if (missingMarkerLogged.compareAndSet(false, true)) {
+                log.warn("authStateCache ignoré : authLoginPageMarker doit être renseigné pour détecter une session expirée");
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Renvoie l'état d'authentification encore valide de l'utilisateur.
+     *
+     * @param user Le nom de l'utilisateur.
+     * @return Le storageState au format JSON, ou null s'il est absent ou expiré.
+     */
+    public static String get(String user) {
+        AuthState state = states.get(user);
+        if (state == null && GlobalProp.isAuthStatePersist()) {
+            state = readPersisted(user);
+            if (state != null) states.put(user, state);
+        }
+        if (state == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - state.recordedAt > TimeUnit.MINUTES.toMillis(GlobalProp.getAuthStateTtlMinutes())) {
+            invalidate(user);
+            return null;
+        }
+        return state.json;
+    }
+
+    /**
+     * Enregistre l'état d'authentification courant du contexte pour l'utilisateur.
+     *
+     * @param user Le nom de l'utilisateur.
+     * @param browserContext Le contexte de navigateur authentifié.
+     */
+    public static void record(String user, BrowserContext browserContext) {
+        try {
+            AuthState state = new AuthState(browserContext.storageState(), System.currentTimeMillis());
+            states.put(user, state);
+            if (GlobalProp.isAuthStatePersist()) {
+                Files.createDirectories(Paths.get(PERSIST_FOLDER));
+                Files.writeString(persistPath(user), state.json, StandardCharsets.UTF_8);
+            }
+        } catch (Exception e) {
+            log.warn("Impossible d'enregistrer l'état d'authentification de " + user, e);
+        }
+    }
+
+    /**
+     * Supprime l'état d'authentification de l'utilisateur, en mémoire et sur disque.
+     *
+     * @param user Le nom de l'utilisateur.
+     */
+    public static void invalidate(String user) {
+        states.remove(user);
+        try {
+            Files.deleteIfExists(persistPath(user));
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer l'état d'authentification persisté de " + user, e);
+        }
+    }
+
+    /**
+     * Restaure les cookies d'un état d'authentification dans un contexte existant.
+     * Le localStorage est restauré séparément par applyLocalStorage, une seule fois, sur la page déjà chargée.
+     *
+     * @param browserContext Le contexte de navigateur.
+     * @param json Le storageState au format JSON.
+     */
+    public static void apply(BrowserContext browserContext, String json) {
+        JSONArray jsonCookies = new JSONObject(json).optJSONArray("cookies");
+        if (jsonCookies != null && !jsonCookies.isEmpty()) {
+            List<Cookie> cookies = new ArrayList<>();
+            for (int i = 0; i < jsonCookies.length(); i++) {
+                cookies.add(toCookie(jsonCookies.getJSONObject(i)));
+            }
+            browserContext.addCookies(cookies);
+        }
+    }
+
+    /**
+     * Écrit dans le localStorage de la page les valeurs enregistrées pour son origine.
+     * L'injection est ponctuelle : contrairement à un script d'initialisation du contexte, elle n'est pas rejouée
+     * aux navigations suivantes et ne réinjecte donc pas la session après une déconnexion ou un changement d'utilisateur.
+     *
+     * @param page La page, déjà chargée sur l'origine à restaurer.
+     * @param json Le storageState au format JSON.
+     * @return Vrai si des valeurs ont été écrites, la page doit alors être rechargée pour que l'application les lise.
+     */
+    public static boolean applyLocalStorage(Page page, String json) {
+        JSONArray origins = new JSONObject(json).optJSONArray("origins");
+        if (origins == null || origins.isEmpty()) {
+            return false;
+        }
+        Object written = page.evaluate("origins => {"
+                + "const o = origins.find(x => x.origin === window.location.origin);"
+                + "if (!o || !o.localStorage.length) return false;"
+                + "for (const i of o.localStorage) localStorage.setItem(i.name, i.value);"
+                + "return true;"
+                + "}", origins.toList());
+        return Boolean.TRUE.equals(written);
+    }
+
+    /**
+     * Vérifie si la réponse d'une navigation refuse l'accès (401 ou 403), par exemple une authentification HTTP basique
+     * dont les identifiants ne font pas partie du storageState.
+     *
+     * @param response La réponse de la navigation, null si la navigation n'a pas produit de réponse.
+     * @return Vrai si le statut est 401 ou 403.
+     */
+    public static boolean isUnauthorized(Response response) {
+        return response != null && (response.status() == 401 || response.status() == 403);
+    }
+
+    /**
+     * Vérifie si la page affiche la page de login (marqueur défini par authLoginPageMarker).
+     *
+     * @param page La page à vérifier.
+     * @return Vrai si le marqueur de la page de login est présent.
+     */
+    public static boolean isLoginPage(Page page) {
+        String marker = GlobalProp.getAuthLoginPageMarker();
+        return marker != null && !marker.isBlank() && page.locator(marker).count() > 0;
+    }
+
+    private static Cookie toCookie(JSONObject json) {
+        Cookie cookie = new Cookie(json.getString("name"), json.getString("value"))
+                .setDomain(json.getString("domain"))
+                .setPath(json.optString("path", "/"))
+                .setExpires(json.optDouble("expires", -1))
+                .setHttpOnly(json.optBoolean("httpOnly"))
+                .setSecure(json.optBoolean("secure"));
+        String sameSite = json.optString("sameSite", null);
+        if (sameSite != null) {
+            cookie.setSameSite(SameSiteAttribute.valueOf(sameSite.toUpperCase()));
+        }
+        return cookie;
+    }
+
+    private static AuthState readPersisted(String user) {
+        Path path = persistPath(user);
+        try {
+            if (Files.exists(path)) {
+                return new AuthState(Files.readString(path, StandardCharsets.UTF_8), Files.getLastModifiedTime(path).toMillis());
+            }
+        } catch (IOException e) {
+            log.warn("Impossible de lire l'état d'authentification persisté de " + user, e);
+        }
+        return null;
+    }
+
+    private static Path persistPath(String user) {
+        return Paths.get(PERSIST_FOLDER, user.replaceAll("[^A-Za-z0-9._-]", "_") + ".json");
+    }
+
+    private static class AuthState {
+        private final String json;
+        private final long recordedAt;
+
+        private AuthState(String json, long recordedAt) {
+            this.json = json;
+            this.recordedAt = recordedAt;
+        }
+    }
+}
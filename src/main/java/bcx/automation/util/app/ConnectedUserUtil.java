@@ -3,23 +3,36 @@ package bcx.automation.util.app;
 import com.microsoft.playwright.Page;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utilitaire pour gérer les utilisateurs connectés sur différents drivers.
  */
 public class ConnectedUserUtil {
-    private static HashMap<Page, String> connectedUserMap;
+    private static final Map<Page, String> connectedUserMap = new ConcurrentHashMap<>();
 
     private ConnectedUserUtil() {
     }
 
     /**
-     * Renvoie la map des utilisateurs connectés sur les différents drivers.
+     * Renvoie une copie de la map des utilisateurs connectés sur les différents drivers.
+     * Les modifications de la copie ne sont pas prises en compte : utiliser setConnectedUser, remove et clear.
      *
-     * @return La map des utilisateurs connectés.
+     * @return La copie de la map des utilisateurs connectés.
+     * @deprecated Utiliser getConnectedUsers, vue partagée entre les threads de test.
      */
+    @Deprecated
     public static HashMap<Page, String> getConnectedUserMap() {
-        if (connectedUserMap == null) connectedUserMap = new HashMap<>();
+        return new HashMap<>(connectedUserMap);
+    }
+
+    /**
+     * Renvoie la map des utilisateurs connectés sur les différents drivers, partagée entre les threads de test.
+     *
+     * @return La map des utilisateurs connectés.
+     */
+    public static Map<Page, String> getConnectedUsers() {
         return connectedUserMap;
     }
 
@@ -27,7 +40,16 @@ public class ConnectedUserUtil {
      * Efface la liste des utilisateurs connectés.
      */
     public static void clear() {
-        if (connectedUserMap != null) connectedUserMap.clear();
+        connectedUserMap.clear();
+    }
+
+    /**
+     * Oublie l'utilisateur connecté sur la page, par exemple lorsque son contexte de navigateur est fermé.
+     *
+     * @param page La page associée au driver.
+     */
+    public static void remove(Page page) {
+        connectedUserMap.remove(page);
     }
 
     /**
@@ -39,11 +61,7 @@ public class ConnectedUserUtil {
      * @param page     La page associée au driver.
      */
     public static void setConnectedUser(String userName, Page page) {
-        if (!getConnectedUserMap().containsKey(page)) {
-            getConnectedUserMap().put(page, userName);
-        } else {
-            getConnectedUserMap().replace(page, userName);
-        }
+        connectedUserMap.put(page, userName);
     }
 
     /**
@@ -53,11 +71,8 @@ public class ConnectedUserUtil {
      * @return Le nom de l'utilisateur connecté, ou null si aucun utilisateur n'est connecté.
      */
     public static String getConnectedUser(Page page) {
-        try {
-            return getConnectedUserMap().get(page).split(";")[0];
-        } catch (Exception e) {
-            return null;
-        }
+        String connectedUser = page == null ? null : connectedUserMap.get(page);
+        return connectedUser == null ? null : connectedUser.split(";")[0];
     }
 
     /**
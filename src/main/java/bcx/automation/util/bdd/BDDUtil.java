@@ -5,11 +5,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.testng.Assert;
 import bcx.automation.report.Reporter;
 import bcx.automation.properties.GlobalProp;
-import bcx.automation.util.TimeWait;
 
 import java.io.*;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 /**
  * Utilitaire de base de données.
@@ -19,7 +21,7 @@ import java.util.*;
  */
 @Slf4j
 public class BDDUtil {
-    private static final HashMap<String, Connection> connexions = new HashMap<>();
+    private static final Map<Thread, Map<String, PooledConnection>> connexions = new ConcurrentHashMap<>();
     private static final Random rand = new Random();
     private static final String NOPARAM = "noparam";
     public static final String GROUP_BY = "group by";
@@ -33,46 +35,78 @@ public class BDDUtil {
     /**
      * Connexion à la base de données passée en paramètre.
      * Dans le fichier GlobalVariable.properties, il faut référencer autant de couples de properties urlBddSCHEMA et schemaSCHEMA qu'il y a de schémas à accéder.
+     * La connexion est empruntée au pool du schéma et réservée au thread courant jusqu'à deconnecterDB.
      *
      * @param schema Le schéma de la base de données.
      * @return La connexion à la base de données.
      */
     public static Connection connecterDB(Reporter report, String schema) {
-        String connexionKey = Thread.currentThread() + schema;
-        Connection connexion = connexions.get(connexionKey);
-        boolean connected = false;
-        try {
-            connected = !connexion.isClosed();
-        } catch (Exception e) {
-            // ignore
-        }
-        if (!connected) {
-            String keyBdd = "urlBdd" + schema.toUpperCase();
-            String bddUrl = GlobalProp.get(keyBdd);
+        PooledConnection pooled = lease(report, schema);
+        return pooled != null ? pooled.getConnection() : null;
+    }
+
+    /**
+     * Renvoie la connexion du pool réservée au thread courant pour le schéma, en l'empruntant si nécessaire.
+     *
+     * @param schema Le schéma de la base de données.
+     * @return La connexion, ou null si la connexion a échoué.
+     */
+    private static PooledConnection lease(Reporter report, String schema) {
+        Map<String, PooledConnection> threadConnexions = connexions.computeIfAbsent(Thread.currentThread(), thread -> new HashMap<>());
+        PooledConnection pooled = threadConnexions.get(schema);
+        if (pooled == null || pooled.isClosed()) {
+            if (pooled != null) pooled.release();
+            pooled = null;
             try {
-                connexion = DriverManager.getConnection(bddUrl);
+                pooled = ConnectionPool.of(schema).borrow();
             } catch (Exception e) {
                 if (report != null)
                     report.log(Reporter.FAIL_STATUS_NO_SCREENSHOT, "BDD CONNEXION FAIL", e);
                 else
                     Assert.assertEquals(false, true, "BDD CONNEXION FAIL");
             }
-            connexions.remove(connexionKey);
-            connexions.put(connexionKey, connexion);
+            if (pooled != null) threadConnexions.put(schema, pooled);
+            else threadConnexions.remove(schema);
         }
-        return connexion;
+        return pooled;
     }
 
     /**
-     * Déconnexion de la base de données.
+     * Rend au pool les connexions réservées par le thread courant, et celles des threads terminés.
      */
     public static void deconnecterDB() {
-        for (Map.Entry<String, Connection> connexion : connexions.entrySet()) {
-            try {
-                connexion.getValue().close();
-            } catch (Exception ignore) {
-                // on passe à la suite
+        Map<String, PooledConnection> threadConnexions = connexions.remove(Thread.currentThread());
+        if (threadConnexions != null) threadConnexions.values().forEach(PooledConnection::release);
+        connexions.entrySet().removeIf(entry -> {
+            if (entry.getKey().isAlive()) return false;
+            entry.getValue().values().forEach(PooledConnection::release);
+            return true;
+        });
+    }
+
+    /**
+     * Libère un statement préparé par prepareStatement : il reste ouvert s'il est dans le cache de sa connexion.
+     *
+     * @param statement Le statement.
+     */
+    private static void releaseStatement(PreparedStatement statement) {
+        if (statement == null) {
+            return;
+        }
+        try {
+            Connection connection = statement.getConnection();
+            Map<String, PooledConnection> threadConnexions = connexions.get(Thread.currentThread());
+            if (threadConnexions != null) {
+                for (PooledConnection pooled : threadConnexions.values()) {
+                    if (pooled.getConnection() == connection) {
+                        pooled.releaseStatement(statement);
+                        return;
+                    }
+                }
             }
+            statement.close();
+        } catch (SQLException ignore) {
+            // on passe à la suite
         }
     }
 
@@ -168,12 +202,7 @@ public class BDDUtil {
      * @return La première ligne de la première colonne.
      */
     public static String executeSelectUntilExpectedValue(Reporter report, String query, String[] params, String expectedValue, int timeout) {
-        QueryResultUtil results = executeSelectMultipleMultiRow(report, query, params);
-        TimeWait wait = new TimeWait();
-        while ((results.size() == 0 || !String.valueOf(results.getFirstVal()).equals(String.valueOf(expectedValue))) && wait.notOver(timeout)) {
-            results = executeSelectMultipleMultiRow(report, query, params);
-        }
-        return results.getFirstVal();
+        return waitForFirstValue(report, query, params, value -> String.valueOf(value).equals(String.valueOf(expectedValue)), timeout, "= " + expectedValue);
     }
 
     /**
@@ -186,12 +215,7 @@ public class BDDUtil {
      * @return La première ligne de la première colonne.
      */
     public static String executeSelectUntilContainsExpectedValue(Reporter report, String query, String[] params, String expectedValue, int timeout) {
-        QueryResultUtil results = executeSelectMultipleMultiRow(report, query, params);
-        TimeWait wait = new TimeWait();
-        while ((results.size() == 0 || !String.valueOf(results.getFirstVal()).contains(String.valueOf(expectedValue))) && wait.notOver(timeout)) {
-            results = executeSelectMultipleMultiRow(report, query, params);
-        }
-        return results.getFirstVal();
+        return waitForFirstValue(report, query, params, value -> String.valueOf(value).contains(String.valueOf(expectedValue)), timeout, "contient " + expectedValue);
     }
 
     /**
@@ -204,13 +228,88 @@ public class BDDUtil {
      * @return La première ligne de la première colonne.
      */
     public static String executeSelectUntilContainsExpectedValue(Reporter report, String query, String[] params, String[] expectedValues, int timeout) {
-        QueryResultUtil results = executeSelectMultipleMultiRow(report, query, params);
-        TimeWait wait = new TimeWait();
-        ArrayList<String> arrayList = new ArrayList<>(Arrays.asList(expectedValues));
-        while ((results.size() == 0 || !arrayList.contains(String.valueOf(results.getFirstVal()))) && wait.notOver(timeout)) {
-            results = executeSelectMultipleMultiRow(report, query, params);
+        List<String> arrayList = Arrays.asList(expectedValues);
+        return waitForFirstValue(report, query, params, value -> arrayList.contains(String.valueOf(value)), timeout, "dans " + arrayList);
+    }
+
+    /**
+     * Exécute un select jusqu'à ce que la première colonne de la première ligne vérifie la condition, dans la limite du timeout.
+     * Le statement est préparé une seule fois et relancé après un délai doublé à chaque essai (de bddWaitInitialDelayMs
+     * à bddWaitMaxDelayMs, avec une part aléatoire pour étaler les tests parallèles). Si bddWaitNotifyChannel est renseigné
+     * et que le driver le permet, une notification du canal relance la requête sans attendre la fin du délai.
+     * Un seul log récapitule l'attente.
+     *
+     * @param query     La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
+     * @param params    Tableau de paramètres à inclure dans la requête.
+     * @param expected  La condition sur la valeur.
+     * @param timeout   Timeout en secondes.
+     * @param expectation La description de la condition pour le rapport.
+     * @return La première ligne de la première colonne lors du dernier essai, null si aucune ligne.
+     */
+    private static String waitForFirstValue(Reporter report, String query, String[] params, Predicate<String> expected, int timeout, String expectation) {
+        query = getQuery(query);
+        long start = System.currentTimeMillis();
+        long deadline = start + TimeUnit.SECONDS.toMillis(timeout);
+        PreparedStatement statement = prepareStatement(report, query, params, true);
+        if (statement == null) {
+            return null;
         }
-        return results.getFirstVal();
+        String value = null;
+        boolean found = false;
+        int attempts = 0;
+        long delay = Math.max(1, GlobalProp.getBddWaitInitialDelayMs());
+        long maxDelay = Math.max(delay, GlobalProp.getBddWaitMaxDelayMs());
+        Exception lastError = null;
+        DbChangeNotifier notifier = null;
+        try {
+            statement.setMaxRows(1);
+            notifier = DbChangeNotifier.of(statement.getConnection(), GlobalProp.getBddWaitNotifyChannel());
+            while (true) {
+                attempts++;
+                try (ResultSet rs = statement.executeQuery()) {
+                    boolean hasRow = rs.next();
+                    value = hasRow ? rs.getString(1) : null;
+                    found = hasRow && expected.test(value);
+                } catch (SQLException e) {
+                    lastError = e;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (found || remaining <= 0) {
+                    break;
+                }
+                long pause = Math.min(remaining, delay / 2 + rand.nextLong(delay / 2 + 1));
+                if (notifier != null) {
+                    notifier.await(pause);
+                } else {
+                    Thread.sleep(pause);
+                }
+                delay = Math.min(delay * 2, maxDelay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            lastError = e;
+        } finally {
+            if (notifier != null) notifier.close();
+            try {
+                statement.setMaxRows(0);
+            } catch (SQLException ignore) {
+                // on passe à la suite
+            }
+            releaseStatement(statement);
+        }
+        if (report != null) {
+            String summary = "attente BDD valeur " + expectation + " : " + (found ? "obtenue" : "non obtenue, dernière valeur " + value)
+                    + " en " + (System.currentTimeMillis() - start) + " ms, " + attempts + " requête(s)" + (notifier != null ? ", notifications " + GlobalProp.getBddWaitNotifyChannel() : "");
+            if (found) {
+                report.log(Reporter.PASS_STATUS, summary);
+            } else if (lastError != null) {
+                report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, summary, lastError);
+            } else {
+                report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, summary);
+            }
+        }
+        return value;
     }
 
     /**
@@ -282,7 +381,7 @@ public class BDDUtil {
      * Exécute une requête SQL. Renvoie 100 résultats max.
      *
      * @param query La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query) {
         return executeSelectMultipleMultiRow(report, query, 100, NOPARAM);
@@ -293,7 +392,7 @@ public class BDDUtil {
      *
      * @param query   La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
      * @param nbLine  Nombre de lignes à ramener dans l'objet QueryResultUtil.
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query, int nbLine) {
         return executeSelectMultipleMultiRow(report, query, nbLine, NOPARAM);
@@ -304,7 +403,7 @@ public class BDDUtil {
      *
      * @param query  La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
      * @param param  Paramètre à inclure dans la requête.
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query, String param) {
         return executeSelectMultipleMultiRow(report, query, 100, new String[]{param}, true);
@@ -316,7 +415,7 @@ public class BDDUtil {
      * @param query   La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
      * @param nbLine  Nombre de lignes à ramener dans l'objet QueryResultUtil.
      * @param param   Paramètre à inclure dans la requête.
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query, int nbLine, String param) {
         return executeSelectMultipleMultiRow(report, query, nbLine, new String[]{param}, true);
@@ -327,7 +426,7 @@ public class BDDUtil {
      *
      * @param query  La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
      * @param params Tableau de paramètres à inclure dans la requête.
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query, String[] params) {
         return executeSelectMultipleMultiRow(report, query, 100, params, true);
@@ -339,7 +438,7 @@ public class BDDUtil {
      * @param query     La requête SQL à exécuter. Ses paramètres doivent être remplacés par des ?
      * @param nbLine    Nombre de lignes à ramener dans l'objet QueryResultUtil.
      * @param params    Tableau de paramètres à inclure dans la requête.
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query, int nbLine, String[] params) {
         return executeSelectMultipleMultiRow(report, query, nbLine, params, true);
@@ -352,7 +451,7 @@ public class BDDUtil {
      * @param nbLine    Nombre de lignes à ramener dans l'objet QueryResultUtil.
      * @param params    Tableau de paramètres à inclure dans la requête.
      * @param logReport Indique si les logs doivent être rapportés.
-     * @return Un objet QueryResultUtil contenant les résultats dans une Stack de HashMap(String,String) (nom colonne, valeur) et permettant de les gérer.
+     * @return Un objet QueryResultUtil contenant les résultats, stockés par colonne, et permettant de les gérer.
      */
     public static QueryResultUtil executeSelectMultipleMultiRow(Reporter report, String query, int nbLine, String[] params, boolean logReport) {
         ResultSet rs = null;
@@ -360,49 +459,101 @@ public class BDDUtil {
         // si query correspond à un fichier, récupère son contenu
         query = getQuery(query);
         // exécution de la requête
-        Stack<LinkedHashMap<String, String>> result = new Stack<>();
+        QueryResultUtil result = new QueryResultUtil(new String[0]);
         boolean executed = false;
         Exception e = null;
         int columnsNumber;
         int nLine;
+        int logSampleRows = GlobalProp.getBddLogSampleRows();
         try {
             statement = prepareStatement(report, query, params, logReport);
+            statement.setMaxRows(Math.max(0, nbLine));
+            statement.setFetchSize(Math.max(0, Math.min(nbLine, GlobalProp.getBddFetchSize())));
             rs = statement.executeQuery();
             ResultSetMetaData rsmd = rs.getMetaData();
             columnsNumber = rsmd.getColumnCount();
+            String[] columnNames = new String[columnsNumber];
+            for (int i = 1; i <= columnsNumber; i++) {
+                columnNames[i - 1] = rsmd.getColumnName(i).toUpperCase();
+            }
+            result = new QueryResultUtil(columnNames);
             nLine = 0;
-            while (rs.next() && nLine < nbLine) {
-                LinkedHashMap<String, String> resultRow = new LinkedHashMap<>();
+            while (nLine < nbLine && rs.next()) {
+                String[] values = new String[columnsNumber];
                 nLine++;
+                StringBuilder logLine = nLine <= logSampleRows && log.isInfoEnabled() ? new StringBuilder("## ligne " + nLine + " :") : null;
                 for (int i = 1; i <= columnsNumber; i++) {
-                    log.info("## " + rsmd.getColumnName(i) + " = " + rs.getString(i));
-                    resultRow.put(rsmd.getColumnName(i).toUpperCase(), rs.getString(i));
+                    values[i - 1] = rs.getString(i);
+                    if (logLine != null) logLine.append(' ').append(columnNames[i - 1]).append(" = ").append(values[i - 1]).append(';');
                 }
-                result.push(resultRow);
+                if (logLine != null) log.info(logLine.toString());
+                result.addRow(values);
+            }
+            if (nLine > logSampleRows) {
+                log.info("## ... " + (nLine - logSampleRows) + " ligne(s) suivante(s) non loguée(s), " + nLine + " ligne(s) lue(s)");
             }
             executed = true;
         } catch (Exception ex) {
             e = ex;
         } finally {
-            if (statement != null) {
+            if (rs != null) {
                 try {
-                    statement.close();
+                    rs.close();
                 } catch (SQLException ignore) {
                     // on passe à la suite
                 }
             }
-            if (rs != null) {
+            releaseStatement(statement);
+            if (!executed && report != null) {
+                report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "BDD executeSelectMultipleMultiRow FAIL", e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Ouvre un curseur sur le résultat d'un select, pour parcourir un grand nombre de lignes en mémoire constante :
+     * les lignes sont lues par paquets de bddFetchSize et seules les bddLogSampleRows premières sont loguées.
+     * L'autocommit de la connexion est désactivé pendant la vie du curseur (certains drivers, dont PostgreSQL,
+     * chargent sinon tout le résultat) et rétabli à sa fermeture.
+     * Le curseur est à fermer après usage (try-with-resources).
+     *
+     * @param report Le reporter pour les logs.
+     * @param query La requête SQL ou le chemin du fichier contenant la requête.
+     * @param params Les paramètres de la requête.
+     * @return Le curseur, ou null en cas d'erreur.
+     */
+    public static QueryCursor openCursor(Reporter report, String query, String... params) {
+        query = getQuery(query);
+        PreparedStatement statement = null;
+        boolean restoreAutoCommit = false;
+        try {
+            statement = prepareStatement(report, query, params.length == 0 ? new String[]{NOPARAM} : params, true, true);
+            Connection connection = statement.getConnection();
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            statement.setFetchSize(Math.max(0, GlobalProp.getBddFetchSize()));
+            return new QueryCursor(statement, statement.executeQuery(), GlobalProp.getBddLogSampleRows(), restoreAutoCommit);
+        } catch (Exception e) {
+            if (statement != null) {
                 try {
-                    rs.close();
+                    if (restoreAutoCommit) statement.getConnection().setAutoCommit(true);
+                } catch (SQLException ignore) {
+                    // on passe à la suite
+                }
+                try {
+                    statement.close();
                 } catch (SQLException ignore) {
                     // on passe à la suite
                 }
             }
-            if (!executed && report != null) {
-                report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "BDD executeSelectMultipleMultiRow FAIL", e);
+            if (report != null) {
+                report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "BDD openCursor FAIL", e);
             }
+            return null;
         }
-        return new QueryResultUtil(result);
     }
 
     /**
@@ -448,21 +599,90 @@ public class BDDUtil {
         try {
             statement = prepareStatement(report, query, params, logReport);
             if (statement != null) {
-                statement.executeQuery();
+                statement.execute();
             } else {
                 if (report != null) report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "BDD executeInsertUpdateOrDelete FAIL, statement null");
             }
         } catch (Exception e) {
             if (report != null) report.log(Reporter.INFO_STATUS, "BDD executeInsertUpdateOrDelete", e);
         } finally {
-            if (statement != null) {
+            releaseStatement(statement);
+        }
+    }
+
+    /**
+     * Exécute une requête non-query (usuellement INSERT/UPDATE/DELETE) pour chaque jeu de paramètres, par lots de
+     * bddBatchSize lignes, dans une seule transaction : tout est annulé si un lot échoue.
+     * Un seul log récapitulatif est rapporté.
+     *
+     * @param report     Le reporter pour les logs.
+     * @param query      L'instruction SQL ou le chemin du fichier la contenant.
+     * @param paramsList Les jeux de paramètres SQL, un par ligne.
+     * @return Le nombre de lignes modifiées connu du driver, -1 en cas d'erreur.
+     */
+    public static int executeBatch(Reporter report, String query, List<String[]> paramsList) {
+        query = getQuery(query);
+        String schema = identifyScheme(query);
+        PooledConnection connexion = lease(report, schema);
+        if (connexion == null) {
+            return -1;
+        }
+        query = query.replaceAll(" " + schema + ".", " " + GlobalProp.get("schema" + schema.toUpperCase()) + ".");
+        int batchSize = Math.max(1, GlobalProp.getBddBatchSize());
+        long start = System.currentTimeMillis();
+        Connection connection = connexion.getConnection();
+        int updated = 0;
+        int batches = 0;
+        int rows = 0;
+        Boolean autoCommit = null;
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            for (String[] params : paramsList) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setString(i + 1, params[i]);
+                }
+                statement.addBatch();
+                if (++rows % batchSize == 0) {
+                    updated += sumUpdateCounts(statement.executeBatch());
+                    batches++;
+                }
+            }
+            if (rows % batchSize != 0) {
+                updated += sumUpdateCounts(statement.executeBatch());
+                batches++;
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignore) {
+                // on passe à la suite
+            }
+            if (report != null) report.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "BDD executeBatch FAIL après " + rows + " ligne(s), transaction annulée", e);
+            return -1;
+        } finally {
+            if (autoCommit != null) {
                 try {
-                    statement.close();
+                    connection.setAutoCommit(autoCommit);
                 } catch (SQLException ignore) {
                     // on passe à la suite
                 }
             }
         }
+        if (report != null) {
+            report.log(Reporter.PASS_STATUS, "requête batch : " + query.replace("<", "&lt;").replace(">", "&gt;").replace("\n", "  \n").replace("\r", "  \r")
+                    + "  \n" + rows + " ligne(s) en " + batches + " lot(s), " + updated + " ligne(s) modifiée(s), " + (System.currentTimeMillis() - start) + " ms");
+        }
+        return updated;
+    }
+
+    private static int sumUpdateCounts(int[] counts) {
+        int sum = 0;
+        for (int count : counts) {
+            if (count > 0) sum += count;
+        }
+        return sum;
     }
 
     /**
@@ -474,12 +694,16 @@ public class BDDUtil {
      * @return Un statement construit à partir de la requête avec ses paramètres settés.
      */
     private static PreparedStatement prepareStatement(Reporter report, String query, String[] params, boolean logReport) {
+        return prepareStatement(report, query, params, logReport, false);
+    }
+
+    private static PreparedStatement prepareStatement(Reporter report, String query, String[] params, boolean logReport, boolean streaming) {
         PreparedStatement statement = null;
         String schema = identifyScheme(query);
-        Connection connexion = connecterDB(report, schema);
+        PooledConnection connexion = lease(report, schema);
         query = query.replaceAll(" " + schema + ".", " " + GlobalProp.get("schema" + schema.toUpperCase()) + ".");
         try {
-            statement = connexion.prepareStatement(query);
+            statement = streaming ? connexion.prepareStreamingStatement(query) : connexion.prepareStatement(query);
             query = replaceQueryParameters(query, params, statement);
 
         } catch (Exception e) {
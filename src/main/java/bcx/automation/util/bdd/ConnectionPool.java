@@ -0,0 +1,165 @@
+package bcx.automation.util.bdd;
+
+import bcx.automation.properties.GlobalProp;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de connexions JDBC d'un schéma (urlBddSCHEMA).
+ * Le nombre de connexions empruntées est limité par bddPoolMaxSize, chaque connexion est validée à l'emprunt,
+ * les connexions inutilisées depuis bddPoolIdleTimeoutSeconds sont fermées, et chaque connexion garde un cache
+ * de bddStatementCacheSize PreparedStatement.
+ */
+@Slf4j
+public class ConnectionPool {
+    private static final int BORROW_TIMEOUT_SECONDS = 60;
+    private static final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    @Getter
+    private final String schema;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Semaphore permits;
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    private ConnectionPool(String schema) {
+        this.schema = schema;
+        this.permits = new Semaphore(Math.max(1, GlobalProp.getBddPoolMaxSize()), true);
+    }
+
+    /**
+     * Renvoie le pool du schéma, créé au premier appel.
+     *
+     * @param schema Le schéma.
+     * @return Le pool du schéma.
+     */
+    public static ConnectionPool of(String schema) {
+        return pools.computeIfAbsent(schema, ConnectionPool::new);
+    }
+
+    /**
+     * Emprunte une connexion validée : une connexion libre du pool, ou une nouvelle connexion si aucune n'est libre.
+     *
+     * @return La connexion empruntée.
+     * @throws SQLException Si aucune connexion ne peut être obtenue.
+     */
+    public PooledConnection borrow() throws SQLException {
+        try {
+            if (!permits.tryAcquire()) {
+                waits.incrementAndGet();
+                if (!permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new SQLException("ConnectionPool " + schema + " : aucune connexion libre après " + BORROW_TIMEOUT_SECONDS + "s");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("ConnectionPool " + schema + " : attente d'une connexion interrompue", e);
+        }
+        try {
+            evictIdle();
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isValid(pooled)) {
+                    borrowed.incrementAndGet();
+                    return pooled;
+                }
+                invalid.incrementAndGet();
+                pooled.close();
+            }
+            Connection connection = DriverManager.getConnection(GlobalProp.get("urlBdd" + schema.toUpperCase()));
+            created.incrementAndGet();
+            borrowed.incrementAndGet();
+            return new PooledConnection(this, schema, connection, Math.max(0, GlobalProp.getBddStatementCacheSize()));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Rend une connexion au pool après l'avoir remise à zéro (transaction annulée, autocommit rétabli) ;
+     * elle est fermée si elle n'est plus utilisable ou si la remise à zéro échoue.
+     *
+     * @param pooled La connexion.
+     */
+    void release(PooledConnection pooled) {
+        if (pooled.isClosed() || !pooled.reset()) {
+            pooled.close();
+        } else {
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Ferme les connexions libres de tous les pools et logue leurs métriques.
+     */
+    public static void closeAll() {
+        for (ConnectionPool pool : pools.values()) {
+            PooledConnection pooled;
+            while ((pooled = pool.idle.pollFirst()) != null) {
+                pooled.close();
+            }
+            if (pool.created.get() > 0) log.info(pool.getMetrics());
+        }
+    }
+
+    /**
+     * Renvoie les métriques du pool : connexions créées, empruntées, attentes, évictions, connexions invalides
+     * et taux de réutilisation des PreparedStatement.
+     *
+     * @return Les métriques sous forme de texte.
+     */
+    public String getMetrics() {
+        long hits = statementHits.get();
+        long total = hits + statementMisses.get();
+        return "ConnectionPool " + schema + " : " + created.get() + " connexion(s) créée(s), " + borrowed.get() + " emprunt(s), "
+                + waits.get() + " attente(s), " + evicted.get() + " éviction(s), " + invalid.get() + " invalide(s), "
+                + idle.size() + " libre(s), statements réutilisés " + hits + "/" + total;
+    }
+
+    void recordStatementHit() {
+        statementHits.incrementAndGet();
+    }
+
+    void recordStatementMiss() {
+        statementMisses.incrementAndGet();
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.getConnection().isValid(Math.max(1, GlobalProp.getBddPoolValidationTimeoutSeconds()));
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void evictIdle() {
+        long limit = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(GlobalProp.getBddPoolIdleTimeoutSeconds());
+        Iterator<PooledConnection> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            if (pooled.getLastUsed() < limit && idle.removeFirstOccurrence(pooled)) {
+                evicted.incrementAndGet();
+                pooled.close();
+            }
+        }
+    }
+}
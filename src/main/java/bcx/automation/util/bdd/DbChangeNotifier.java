@@ -0,0 +1,95 @@
+package bcx.automation.util.bdd;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Écoute des notifications de modification émises par la base (LISTEN/NOTIFY), utilisée par les attentes de BDDUtil
+ * pour relancer la requête dès qu'une modification est signalée plutôt qu'à la fin du délai d'attente.
+ * Seul le driver PostgreSQL (org.postgresql.PGConnection, appelé par réflexion) est pris en charge ;
+ * avec un autre driver, of renvoie null et l'attente se fait par délais croissants.
+ */
+@Slf4j
+public class DbChangeNotifier implements AutoCloseable {
+    private static final String PG_CONNECTION = "org.postgresql.PGConnection";
+
+    private final Connection connection;
+    private final String channel;
+    private final Object pgConnection;
+    private final Method getNotifications;
+
+    private DbChangeNotifier(Connection connection, String channel, Object pgConnection, Method getNotifications) {
+        this.connection = connection;
+        this.channel = channel;
+        this.pgConnection = pgConnection;
+        this.getNotifications = getNotifications;
+    }
+
+    /**
+     * Abonne la connexion au canal de notification.
+     *
+     * @param connection La connexion, qui reçoit les notifications.
+     * @param channel Le nom du canal, alimenté par un trigger (NOTIFY canal).
+     * @return L'écouteur, ou null si le canal est vide ou si le driver ne gère pas les notifications.
+     */
+    public static DbChangeNotifier of(Connection connection, String channel) {
+        if (connection == null || channel == null || channel.isBlank() || !channel.matches("\\w+")) {
+            return null;
+        }
+        try {
+            Class<?> pgClass = Class.forName(PG_CONNECTION);
+            if (!connection.isWrapperFor(pgClass)) {
+                return null;
+            }
+            Object pgConnection = connection.unwrap(pgClass);
+            Method getNotifications = pgClass.getMethod("getNotifications", int.class);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+            }
+            return new DbChangeNotifier(connection, channel, pgConnection, getNotifications);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        } catch (SQLException e) {
+            log.debug("DbChangeNotifier : abonnement au canal " + channel + " impossible", e);
+            return null;
+        }
+    }
+
+    /**
+     * Attend une notification du canal.
+     *
+     * @param timeoutMillis Le délai d'attente maximum en millisecondes.
+     * @return Vrai si au moins une notification a été reçue.
+     */
+    public boolean await(long timeoutMillis) {
+        try {
+            Object notifications = getNotifications.invoke(pgConnection, (int) Math.max(1, Math.min(Integer.MAX_VALUE, timeoutMillis)));
+            return notifications != null && Array.getLength(notifications) > 0;
+        } catch (ReflectiveOperationException e) {
+            log.debug("DbChangeNotifier : lecture des notifications du canal " + channel + " en échec", e);
+            try {
+                Thread.sleep(timeoutMillis);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Désabonne la connexion du canal.
+     */
+    @Override
+    public void close() {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN " + channel);
+        } catch (SQLException e) {
+            log.debug("DbChangeNotifier : désabonnement du canal " + channel + " en échec", e);
+        }
+    }
+}
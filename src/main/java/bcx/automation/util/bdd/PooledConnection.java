@@ -0,0 +1,170 @@
+package bcx.automation.util.bdd;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Connexion JDBC gérée par un ConnectionPool, avec son cache LRU de PreparedStatement indexé par le SQL réécrit.
+ * Une connexion n'est utilisée que par un thread à la fois.
+ */
+@Slf4j
+public class PooledConnection {
+    @Getter
+    private final Connection connection;
+    @Getter
+    private final String schema;
+    private final ConnectionPool pool;
+    private final int statementCacheSize;
+    private final Map<String, PreparedStatement> statements;
+    private final Set<PreparedStatement> cachedStatements = Collections.newSetFromMap(new IdentityHashMap<>());
+    @Getter
+    private volatile long lastUsed;
+
+    /**
+     * Constructeur de la classe PooledConnection.
+     *
+     * @param pool Le pool propriétaire.
+     * @param schema Le schéma de la connexion.
+     * @param connection La connexion JDBC.
+     * @param statementCacheSize Le nombre maximum de statements gardés ouverts.
+     */
+    PooledConnection(ConnectionPool pool, String schema, Connection connection, int statementCacheSize) {
+        this.pool = pool;
+        this.schema = schema;
+        this.connection = connection;
+        this.lastUsed = System.currentTimeMillis();
+        this.statementCacheSize = statementCacheSize;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    cachedStatements.remove(eldest.getValue());
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Renvoie le statement du cache pour ce SQL, paramètres effacés, ou en prépare un nouveau.
+     *
+     * @param sql Le SQL réécrit de la requête.
+     * @return Le statement.
+     * @throws SQLException Si la préparation échoue.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        lastUsed = System.currentTimeMillis();
+        if (statementCacheSize <= 0) {
+            return connection.prepareStatement(sql);
+        }
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            statement.clearParameters();
+            pool.recordStatementHit();
+            return statement;
+        }
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        cachedStatements.add(statement);
+        pool.recordStatementMiss();
+        return statement;
+    }
+
+    /**
+     * Prépare un statement hors cache, en lecture seule et en avance seule, fermé par son utilisateur.
+     *
+     * @param sql Le SQL réécrit de la requête.
+     * @return Le statement.
+     * @throws SQLException Si la préparation échoue.
+     */
+    public PreparedStatement prepareStreamingStatement(String sql) throws SQLException {
+        lastUsed = System.currentTimeMillis();
+        return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    /**
+     * Libère un statement après usage : il reste ouvert s'il est dans le cache, sinon il est fermé.
+     *
+     * @param statement Le statement.
+     */
+    public void releaseStatement(PreparedStatement statement) {
+        if (statement != null && !cachedStatements.contains(statement)) {
+            closeQuietly(statement);
+        }
+    }
+
+    /**
+     * Rend la connexion au pool.
+     */
+    public void release() {
+        lastUsed = System.currentTimeMillis();
+        pool.release(this);
+    }
+
+    /**
+     * Remet la connexion dans son état par défaut avant de la rendre au pool : annule la transaction en cours
+     * si l'autocommit a été désactivé, rétablit l'autocommit et efface les warnings.
+     *
+     * @return Vrai si la connexion a pu être remise à zéro.
+     */
+    boolean reset() {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            log.debug("Remise à zéro de la connexion " + schema + " en échec", e);
+            return false;
+        }
+    }
+
+    /**
+     * Indique si la connexion est fermée.
+     *
+     * @return Vrai si la connexion est fermée ou inutilisable.
+     */
+    public boolean isClosed() {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Ferme les statements du cache et la connexion.
+     */
+    void close() {
+        statements.values().forEach(PooledConnection::closeQuietly);
+        statements.clear();
+        cachedStatements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Fermeture de la connexion " + schema + " en échec", e);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+            // on passe à la suite
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package bcx.automation.util.bdd;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Curseur sur le résultat d'un select, lu ligne par ligne depuis la base (BDDUtil.openCursor) :
+ * seule la ligne courante est en mémoire, les lignes sont ramenées par paquets de bddFetchSize.
+ * À fermer après usage (try-with-resources) : la fermeture rétablit l'autocommit de la connexion s'il a été désactivé
+ * pour la lecture.
+ */
+@Slf4j
+public class QueryCursor implements AutoCloseable {
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final int logSampleRows;
+    private final boolean restoreAutoCommit;
+    private int rowNumber;
+    private boolean closed;
+
+    /**
+     * Constructeur de la classe QueryCursor.
+     *
+     * @param statement Le statement exécuté, fermé avec le curseur.
+     * @param resultSet Le résultat du statement.
+     * @param logSampleRows Le nombre de premières lignes loguées.
+     * @param restoreAutoCommit Indique si l'autocommit de la connexion est à rétablir à la fermeture.
+     * @throws SQLException Si les métadonnées sont illisibles.
+     */
+    QueryCursor(PreparedStatement statement, ResultSet resultSet, int logSampleRows, boolean restoreAutoCommit) throws SQLException {
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.logSampleRows = logSampleRows;
+        this.restoreAutoCommit = restoreAutoCommit;
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        columnNames = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = metaData.getColumnName(i + 1).toUpperCase();
+            columnIndex.putIfAbsent(columnNames[i], i + 1);
+        }
+    }
+
+    /**
+     * Passe à la ligne suivante.
+     *
+     * @return Vrai s'il reste une ligne, faux à la fin du résultat (le curseur est alors fermé).
+     */
+    public boolean next() {
+        try {
+            if (!closed && resultSet.next()) {
+                rowNumber++;
+                if (rowNumber <= logSampleRows && log.isInfoEnabled()) {
+                    log.info(formatRow());
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("QueryCursor : lecture de la ligne " + (rowNumber + 1) + " en échec", e);
+        }
+        if (rowNumber > logSampleRows) {
+            log.info("## ... " + (rowNumber - logSampleRows) + " ligne(s) suivante(s) non loguée(s), " + rowNumber + " ligne(s) lue(s)");
+        }
+        close();
+        return false;
+    }
+
+    /**
+     * Renvoie la valeur d'une colonne de la ligne courante.
+     *
+     * @param columnNumber Le numéro de colonne, à partir de 1.
+     * @return La valeur de la colonne.
+     */
+    public String getString(int columnNumber) {
+        try {
+            return resultSet.getString(columnNumber);
+        } catch (SQLException e) {
+            throw new IllegalStateException("QueryCursor : lecture de la colonne " + columnNumber + " en échec", e);
+        }
+    }
+
+    /**
+     * Renvoie la valeur d'une colonne de la ligne courante.
+     *
+     * @param columnName Le nom de la colonne, sans tenir compte de la casse.
+     * @return La valeur de la colonne, null si la colonne n'existe pas.
+     */
+    public String getString(String columnName) {
+        Integer columnNumber = columnIndex.get(columnName.toUpperCase());
+        return columnNumber == null ? null : getString(columnNumber);
+    }
+
+    /**
+     * Renvoie les valeurs de la ligne courante.
+     *
+     * @return Les valeurs des colonnes, dans l'ordre du select.
+     */
+    public String[] getRow() {
+        String[] row = new String[columnNames.length];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = getString(i + 1);
+        }
+        return row;
+    }
+
+    /**
+     * Renvoie le numéro de colonne à partir de son nom.
+     *
+     * @param columnName Le nom de la colonne, sans tenir compte de la casse.
+     * @return Le numéro de colonne, 0 si absente.
+     */
+    public int getColumnNumber(String columnName) {
+        return columnIndex.getOrDefault(columnName.toUpperCase(), 0);
+    }
+
+    /**
+     * Renvoie les noms des colonnes en majuscules.
+     *
+     * @return Les noms des colonnes.
+     */
+    public String[] getColumnNames() {
+        return columnNames.clone();
+    }
+
+    /**
+     * Renvoie le nombre de lignes lues.
+     *
+     * @return Le nombre de lignes lues.
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Renvoie les lignes restantes sous forme de stream ; le curseur est fermé à la fermeture du stream.
+     *
+     * @return Le stream des lignes.
+     */
+    public Stream<String[]> stream() {
+        Iterator<String[]> iterator = new Iterator<>() {
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) hasNext = QueryCursor.this.next();
+                return hasNext;
+            }
+
+            @Override
+            public String[] next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                hasNext = null;
+                return getRow();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Ferme le résultat et le statement, puis rétablit l'autocommit de la connexion si nécessaire.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            resultSet.close();
+        } catch (SQLException ignore) {
+            // on passe à la suite
+        }
+        try {
+            if (restoreAutoCommit) {
+                // valide aussi les écritures faites sur la connexion pendant la lecture, comme l'aurait fait l'autocommit
+                statement.getConnection().setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.debug("QueryCursor : rétablissement de l'autocommit en échec", e);
+        }
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+            // on passe à la suite
+        }
+    }
+
+    private String formatRow() throws SQLException {
+        StringBuilder builder = new StringBuilder("## ligne ").append(rowNumber).append(" :");
+        for (int i = 0; i < columnNames.length; i++) {
+            builder.append(' ').append(columnNames[i]).append(" = ").append(resultSet.getString(i + 1)).append(';');
+        }
+        return builder.toString();
+    }
+}
@@ -2,36 +2,99 @@ package bcx.automation.util.bdd;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Stack;
 
 /**
  * Classe permettant de stocker les résultats de requêtes renvoyés par BDDUtil.executeSelectMultipleMultiRow()
- * dans une Stack<HashMap<String, String>> et d'accéder au résultat ligne/ligne, colonne/colonne.
+ * et d'accéder au résultat ligne/ligne, colonne/colonne.
+ * Le résultat est stocké par colonne : un index des noms de colonnes partagé par toutes les lignes et un tableau de
+ * valeurs par colonne. Les vues numériques (double[], long[]) d'une colonne sont calculées au premier appel puis gardées.
  *
  * @author bcx
  */
 @Slf4j
 public class QueryResultUtil {
-    final Stack<LinkedHashMap<String, String>> sqlResult;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private String[][] columns;
+    private int rowCount;
+    private final Map<Integer, double[]> doubleColumns = new HashMap<>();
+    private final Map<Integer, long[]> longColumns = new HashMap<>();
 
     /**
-     * Constructeur prenant en entrée la Stack<HashMap<String, String>> issue du résultat de la requête exécutée par BDDUtil.executeSelectMultipleMultiRow().
+     * Constructeur prenant en entrée la Stack<HashMap<String, String>> issue du résultat d'une requête.
      *
      * @param sqlResult La pile contenant les résultats de la requête.
      */
     public QueryResultUtil(Stack<LinkedHashMap<String, String>> sqlResult) {
-        this.sqlResult = sqlResult;
+        this(sqlResult.isEmpty() ? new String[0] : sqlResult.get(0).keySet().toArray(new String[0]));
+        for (LinkedHashMap<String, String> row : sqlResult) {
+            String[] values = new String[columnNames.length];
+            for (int i = 0; i < columnNames.length; i++) {
+                values[i] = row.get(columnNames[i]);
+            }
+            addRow(values);
+        }
+    }
+
+    /**
+     * Constructeur d'un résultat vide, alimenté ligne par ligne par addRow.
+     *
+     * @param columnNames Les noms des colonnes en majuscules, dans l'ordre du select.
+     */
+    QueryResultUtil(String[] columnNames) {
+        this.columnNames = columnNames;
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndex.put(columnNames[i], i);
+        }
+        columns = new String[columnNames.length][INITIAL_CAPACITY];
     }
 
     /**
-     * Retourne tous les résultats de la requête dans une Stack<HashMap<String, String>>.
+     * Ajoute une ligne au résultat.
      *
-     * @return La pile contenant les résultats de la requête.
+     * @param values Les valeurs de la ligne, dans l'ordre des colonnes.
+     */
+    final void addRow(String[] values) {
+        for (int i = 0; i < columns.length; i++) {
+            if (rowCount == columns[i].length) {
+                columns[i] = Arrays.copyOf(columns[i], rowCount * 2);
+            }
+            columns[i][rowCount] = values[i];
+        }
+        rowCount++;
+        doubleColumns.clear();
+        longColumns.clear();
+    }
+
+    /**
+     * Retourne une copie de tous les résultats de la requête dans une Stack<HashMap<String, String>>, construite à chaque appel.
+     * Le résultat étant stocké par colonne, la pile n'est plus la vue interne : les push, pop ou modifications de lignes
+     * faits sur la pile ne modifient pas le résultat.
+     *
+     * @return La copie des résultats de la requête.
      */
     public Stack<LinkedHashMap<String, String>> getStack() {
-        return sqlResult;
+        Stack<LinkedHashMap<String, String>> stack = new Stack<>();
+        for (int rowNum = 0; rowNum < rowCount; rowNum++) {
+            stack.push(getRow(rowNum));
+        }
+        return stack;
+    }
+
+    /**
+     * Retourne les noms des colonnes en majuscules, dans l'ordre du select.
+     *
+     * @return Les noms des colonnes.
+     */
+    public String[] getColumnNames() {
+        return columnNames.clone();
     }
 
     /**
@@ -41,18 +104,92 @@ public class QueryResultUtil {
      * @return Un tableau de String contenant toutes les valeurs de la colonne spécifiée.
      */
     public String[] getColumn(String colName) {
-        String[] results = null;
-        try {
-            results = new String[sqlResult.size()];
-            int i = 0;
-            for (HashMap<String, String> hash : sqlResult) {
-                results[i] = hash.get(colName.toUpperCase());
-                i++;
+        int col = columnNumber(colName);
+        return col < 0 ? new String[rowCount] : Arrays.copyOf(columns[col], rowCount);
+    }
+
+    /**
+     * Renvoie les valeurs d'une colonne converties en double, les valeurs nulles valant 0.
+     * Le tableau est calculé au premier appel puis partagé : il ne doit pas être modifié.
+     *
+     * @param colName Le nom de la colonne.
+     * @return Les valeurs de la colonne, vide si la colonne n'existe pas.
+     * @throws NumberFormatException Si une valeur n'est pas numérique.
+     */
+    public double[] getDoubleColumn(String colName) {
+        int col = columnNumber(colName);
+        if (col < 0) {
+            return new double[0];
+        }
+        return doubleColumns.computeIfAbsent(col, c -> {
+            double[] values = new double[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                String value = columns[c][i];
+                values[i] = value == null ? 0 : Double.parseDouble(value);
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Renvoie les valeurs d'une colonne converties en long, les valeurs nulles valant 0.
+     * Le tableau est calculé au premier appel puis partagé : il ne doit pas être modifié.
+     *
+     * @param colName Le nom de la colonne.
+     * @return Les valeurs de la colonne, vide si la colonne n'existe pas.
+     * @throws NumberFormatException Si une valeur n'est pas numérique.
+     */
+    public long[] getLongColumn(String colName) {
+        int col = columnNumber(colName);
+        if (col < 0) {
+            return new long[0];
+        }
+        return longColumns.computeIfAbsent(col, c -> {
+            long[] values = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                String value = columns[c][i];
+                values[i] = value == null ? 0 : parseLong(value);
             }
-        } catch (Exception ex) {
-            log.error("getColumn " + colName + " exception", ex);
+            return values;
+        });
+    }
+
+    /**
+     * Renvoie la valeur du champ d'une ligne spécifiée convertie en double, 0 si la valeur est null.
+     *
+     * @param rowNum Le numéro de la ligne.
+     * @param colName Le nom du champ.
+     * @return La valeur du champ, 0 si la ligne ou la colonne n'existe pas.
+     */
+    public double getDouble(int rowNum, String colName) {
+        double[] values = getDoubleColumn(colName);
+        return rowNum >= 0 && rowNum < values.length ? values[rowNum] : 0;
+    }
+
+    /**
+     * Renvoie la valeur du champ d'une ligne spécifiée convertie en long, 0 si la valeur est null.
+     *
+     * @param rowNum Le numéro de la ligne.
+     * @param colName Le nom du champ.
+     * @return La valeur du champ, 0 si la ligne ou la colonne n'existe pas.
+     */
+    public long getLong(int rowNum, String colName) {
+        long[] values = getLongColumn(colName);
+        return rowNum >= 0 && rowNum < values.length ? values[rowNum] : 0;
+    }
+
+    /**
+     * Renvoie la somme des valeurs d'une colonne, arrondie à deux décimales comme BDDUtil.extractDouble.
+     *
+     * @param colName Le nom de la colonne.
+     * @return La somme des valeurs de la colonne.
+     */
+    public double sum(String colName) {
+        double sum = 0;
+        for (double value : getDoubleColumn(colName)) {
+            sum += value;
         }
-        return results;
+        return ((double) Math.round(sum * 100)) / 100;
     }
 
     /**
@@ -62,7 +199,14 @@ public class QueryResultUtil {
      * @return La ligne de résultat de la requête sous forme de HashMap<String, String>.
      */
     public LinkedHashMap<String, String> getRow(int rowNum) {
-        return sqlResult.get(rowNum);
+        if (rowNum < 0 || rowNum >= rowCount) {
+            throw new ArrayIndexOutOfBoundsException("Array index out of range: " + rowNum);
+        }
+        LinkedHashMap<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnNames.length; i++) {
+            row.put(columnNames[i], columns[i][rowNum]);
+        }
+        return row;
     }
 
     /**
@@ -73,11 +217,11 @@ public class QueryResultUtil {
      * @return La valeur du champ spécifié pour la ligne spécifiée.
      */
     public String get(int rowNum, String colName) {
-        try {
-            return sqlResult.get(rowNum).get(colName.toUpperCase());
-        } catch (Exception e) {
+        int col = columnNumber(colName);
+        if (col < 0 || rowNum < 0 || rowNum >= rowCount) {
             return null;
         }
+        return columns[col][rowNum];
     }
 
     /**
@@ -98,7 +242,8 @@ public class QueryResultUtil {
      * @return La valeur du champ spécifié pour la ligne spécifiée.
      */
     public String getString(int rowNum, String colName) {
-        return (get(rowNum, colName) == null ? "" : get(rowNum, colName));
+        String value = get(rowNum, colName);
+        return value == null ? "" : value;
     }
 
     /**
@@ -118,9 +263,8 @@ public class QueryResultUtil {
      */
     public String getFirstVal() {
         String val = null;
-        if (this.size() > 0) {
-            LinkedHashMap<String, String> row = getRow(0);
-            val = row.entrySet().iterator().next().getValue();
+        if (this.size() > 0 && columnNames.length > 0) {
+            val = get(0, columnNames[0]);
         }
         return val;
     }
@@ -133,12 +277,8 @@ public class QueryResultUtil {
      * @return La valeur du champ spécifié pour la ligne spécifiée, ou "0" si la valeur est null.
      */
     public String get0IfNull(int rowNum, String colName) {
-        try {
-            String value = sqlResult.get(rowNum).get(colName.toUpperCase());
-            return (value == null ? "0" : value);
-        } catch (Exception e) {
-            return "0";
-        }
+        String value = get(rowNum, colName);
+        return value == null ? "0" : value;
     }
 
     /**
@@ -147,6 +287,22 @@ public class QueryResultUtil {
      * @return Le nombre de lignes renvoyées par la requête.
      */
     public int size() {
-        return sqlResult.size();
+        return rowCount;
+    }
+
+    private int columnNumber(String colName) {
+        if (colName == null) {
+            return -1;
+        }
+        Integer col = columnIndex.get(colName.toUpperCase());
+        return col == null ? -1 : col;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return (long) Double.parseDouble(value);
+        }
     }
 }
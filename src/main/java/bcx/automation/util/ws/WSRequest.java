@@ -0,0 +1,55 @@
+package bcx.automation.util.ws;
+
+import lombok.Getter;
+
+/**
+ * Description d'un appel de webservice pour WSUtil.callWSFanOut.
+ */
+@Getter
+public class WSRequest {
+    public static final String JSON_HEADERS = "Accept=application/json;Content-Type=application/json";
+
+    private final String uri;
+    private final String method;
+    private final String queryString;
+    private final String headers;
+    private final String payload;
+    private final String apiAuth;
+    private final int expectedStatus;
+    private final boolean proxy;
+
+    /**
+     * Constructeur de la classe WSRequest.
+     *
+     * @param uri            L'URI du webservice.
+     * @param method         La méthode HTTP à utiliser (GET, POST, etc.).
+     * @param queryString    Les paramètres de la requête.
+     * @param headers        Les en-têtes HTTP, sous la forme nom=valeur;nom=valeur.
+     * @param payload        Le corps de la requête.
+     * @param apiAuth        L'authentification API.
+     * @param expectedStatus Le statut HTTP attendu, -1 pour accepter tous les statuts.
+     * @param proxy          Indique si un proxy doit être utilisé.
+     */
+    public WSRequest(String uri, String method, String queryString, String headers, String payload, String apiAuth, int expectedStatus, boolean proxy) {
+        this.uri = uri;
+        this.method = method;
+        this.queryString = queryString;
+        this.headers = headers;
+        this.payload = payload;
+        this.apiAuth = apiAuth;
+        this.expectedStatus = expectedStatus;
+        this.proxy = proxy;
+    }
+
+    /**
+     * Constructeur d'un appel JSON sans proxy ni authentification.
+     *
+     * @param uri            L'URI du webservice.
+     * @param method         La méthode HTTP à utiliser (GET, POST, etc.).
+     * @param payload        Le corps de la requête.
+     * @param expectedStatus Le statut HTTP attendu, -1 pour accepter tous les statuts.
+     */
+    public WSRequest(String uri, String method, String payload, int expectedStatus) {
+        this(uri, method, null, JSON_HEADERS, payload, null, expectedStatus, false);
+    }
+}
@@ -0,0 +1,41 @@
+package bcx.automation.util.ws;
+
+import lombok.Getter;
+
+/**
+ * Réponse d'un appel de webservice fait par WSUtil : statut HTTP, corps, durée de l'appel et éventuelle exception.
+ */
+@Getter
+public class WSResponse {
+    public static final String EXCEPTION_BODY = "exception";
+
+    private final int status;
+    private final String body;
+    private final long durationMs;
+    private final Exception exception;
+
+    /**
+     * Constructeur de la classe WSResponse.
+     *
+     * @param status Le statut HTTP, 0 en cas d'exception.
+     * @param body Le corps de la réponse.
+     * @param durationMs La durée de l'appel en millisecondes.
+     * @param exception L'exception levée par l'appel, null si l'appel a abouti.
+     */
+    public WSResponse(int status, String body, long durationMs, Exception exception) {
+        this.status = status;
+        this.body = body;
+        this.durationMs = durationMs;
+        this.exception = exception;
+    }
+
+    /**
+     * Indique si le statut est celui attendu.
+     *
+     * @param expectedStatus Le statut HTTP attendu, -1 pour accepter tous les statuts.
+     * @return Vrai si le statut est celui attendu.
+     */
+    public boolean hasStatus(int expectedStatus) {
+        return expectedStatus == -1 || expectedStatus == status;
+    }
+}
@@ -4,19 +4,45 @@ import lombok.extern.slf4j.Slf4j;
 import bcx.automation.properties.GlobalProp;
 import bcx.automation.report.Reporter;
 
-import java.io.ByteArrayOutputStream;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
 import java.net.URI;
-import java.net.URL;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Appels de webservices par deux HttpClient partagés (sans proxy imposé, les proxys système -Dhttp(s).proxyHost restant
+ * appliqués, et via le proxy proxyHost/proxyPort) :
+ * connexions et sessions TLS réutilisées d'un appel à l'autre, HTTP/1.1 par défaut et HTTP/2 pour les URI https
+ * si wsHttp2 et si le serveur le propose.
+ */
 @Slf4j
 public class WSUtil {
     public static final String HTTPS_PROXY_HOST = "https.proxyHost";
     public static final String HTTPS_PROXY_PORT = "https.proxyPort";
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private static final int FAN_OUT_BODY_LENGTH = 200;
+    private static final String DEFAULT_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final Object lock = new Object();
+    private static volatile HttpClient directClient;
+    private static volatile HttpClient proxyClient;
+
+    static {
+        RESTRICTED_HEADERS.addAll(Set.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+    }
 
     private WSUtil() {
         throw new IllegalStateException("Utility class");
@@ -38,74 +64,204 @@ public class WSUtil {
      * @return La réponse du webservice.
      */
     public static String callWS(Reporter report, String uri, String method, String queryString, String headers, String payload, String apiAuth, int expectedStatus, boolean log, boolean proxy) {
-        setProxy(proxy);
+        WSResponse response = callWSAsync(uri, method, queryString, headers, payload, apiAuth, proxy).join();
+        logResponse(report, response, method, fullUri(uri, queryString), payload, expectedStatus, log);
+        return response.getBody();
+    }
 
-        String reponse = "";
-        int status = 0;
+    /**
+     * Appel asynchrone d'un webservice : la requête est envoyée sans bloquer le thread appelant.
+     * Rien n'est rapporté, la réponse est à contrôler sur le thread du test avec logResponse.
+     *
+     * @param uri         L'URI du webservice.
+     * @param method      La méthode HTTP à utiliser (GET, POST, etc.).
+     * @param queryString Les paramètres de la requête.
+     * @param headers     Les en-têtes HTTP, sous la forme nom=valeur;nom=valeur.
+     * @param payload     Le corps de la requête.
+     * @param apiAuth     L'authentification API.
+     * @param proxy       Indique si un proxy doit être utilisé.
+     * @return La réponse à venir ; en cas d'erreur, son corps vaut "exception" et son statut 0.
+     */
+    public static CompletableFuture<WSResponse> callWSAsync(String uri, String method, String queryString, String headers, String payload, String apiAuth, boolean proxy) {
+        long start = System.currentTimeMillis();
+        HttpRequest request;
+        HttpClient client;
         try {
-            if (queryString != null && !queryString.equals("")) {
-                queryString = URLEncoder.encode(queryString, "UTF-8");
-                uri = uri + "?" + queryString;
-            }
-            URL url = (new URI(uri)).toURL();
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod(method);
-            if (apiAuth != null) conn.setRequestProperty("Authorization", !(apiAuth.startsWith("Basic") || apiAuth.startsWith("Bearer")) ? "Basic " + apiAuth : apiAuth);
-            if (headers != null) {
-                for (String header : headers.split(";")) {
-                    conn.setRequestProperty(header.split("=")[0], header.split("=")[1]);
-                }
-            }
-            conn.setDoInput(true);
-            if (payload != null) {
-                conn.setDoOutput(true);
-                try (OutputStream output = conn.getOutputStream()) {
-                    output.write(payload.getBytes());
-                } catch (Exception e) {
-                    // On passe à la suite
-                }
-            }
-            status = conn.getResponseCode();
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            byte[] buffer = new byte[1024];
-            int length;
-            try {
-                while ((length = conn.getInputStream().read(buffer)) != -1) {
-                    baos.write(buffer, 0, length);
+            request = buildRequest(uri, method, queryString, headers, payload, apiAuth);
+            client = client(proxy);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(new WSResponse(0, WSResponse.EXCEPTION_BODY, System.currentTimeMillis() - start, e));
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, e) -> e == null
+                        ? new WSResponse(response.statusCode(), new String(response.body(), StandardCharsets.UTF_8), System.currentTimeMillis() - start, null)
+                        : new WSResponse(0, WSResponse.EXCEPTION_BODY, System.currentTimeMillis() - start, toException(e)));
+    }
+
+    /**
+     * Rapporte la réponse d'un webservice : le statut est comparé au statut attendu, la réponse est toujours rapportée
+     * en cas d'écart ou d'exception, et seulement si log est vrai sinon.
+     *
+     * @param report         Le rapporteur pour les logs.
+     * @param response       La réponse du webservice.
+     * @param method         La méthode HTTP.
+     * @param uri            L'URI appelée.
+     * @param payload        Le corps de la requête.
+     * @param expectedStatus Le statut HTTP attendu, -1 pour accepter tous les statuts.
+     * @param log            Indique si la réponse est rapportée quand le statut est celui attendu.
+     */
+    public static void logResponse(Reporter report, WSResponse response, String method, String uri, String payload, int expectedStatus, boolean log) {
+        if (report == null) {
+            return;
+        }
+        if (response.getException() != null) {
+            report.log(expectedStatus == -1 ? Reporter.WARNING_STATUS_NO_SCREENSHOT : Reporter.FAIL_NEXT_STATUS_NO_SCREENSHOT, "Exception in NetClient:- \n", response.getException());
+        }
+        String statusResultat = (response.hasStatus(expectedStatus) ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS_NO_SCREENSHOT);
+        if (log || !statusResultat.equals(Reporter.PASS_STATUS)) {
+            String reponse = response.getBody();
+            report.log(statusResultat, "status attendu/constaté : " + expectedStatus + "/" + response.getStatus() + " on " + method + " " + uri + "  \n" + String.valueOf(payload).replace(",", ",  \n") + "  \n  \nréponse :" + (reponse.startsWith("%PDF") ? reponse.substring(0, Math.min(500, reponse.length())) + ",... String tronquée dans le rapport" : reponse).replace(",", ",  \n"), false);
+        }
+    }
+
+    /**
+     * Appelle une liste de webservices en parallèle, avec au plus maxConcurrency appels en cours et au plus
+     * ratePerSecond appels lancés par seconde. Le statut de chaque réponse est comparé au statut attendu de sa requête
+     * et un seul log récapitule les appels sous forme de tableau (statut, durée, début de la réponse).
+     *
+     * @param report         Le rapporteur pour les logs.
+     * @param requests       Les requêtes à envoyer.
+     * @param maxConcurrency Le nombre maximum d'appels en cours.
+     * @param ratePerSecond  Le nombre maximum d'appels lancés par seconde, 0 pour ne pas limiter.
+     * @return Les réponses, dans l'ordre des requêtes.
+     */
+    public static List<WSResponse> callWSFanOut(Reporter report, List<WSRequest> requests, int maxConcurrency, int ratePerSecond) {
+        long start = System.currentTimeMillis();
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        long interval = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+        long nextSend = System.nanoTime();
+        List<CompletableFuture<WSResponse>> futures = new ArrayList<>(requests.size());
+        try {
+            for (WSRequest request : requests) {
+                permits.acquire();
+                long wait = nextSend - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
                 }
-            } catch (Exception errorStream) {
-                while ((length = conn.getErrorStream().read(buffer)) != -1) {
-                    baos.write(buffer, 0, length);
+                nextSend = Math.max(nextSend, System.nanoTime()) + interval;
+                CompletableFuture<WSResponse> future;
+                try {
+                    future = callWSAsync(request.getUri(), request.getMethod(), request.getQueryString(), request.getHeaders(), request.getPayload(), request.getApiAuth(), request.isProxy());
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.completedFuture(new WSResponse(0, WSResponse.EXCEPTION_BODY, 0, e));
                 }
+                futures.add(future.whenComplete((response, e) -> permits.release()));
             }
-            reponse = baos.toString(StandardCharsets.UTF_8);
-            conn.disconnect();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<WSResponse> responses = new ArrayList<>(requests.size());
+        for (CompletableFuture<WSResponse> future : futures) {
+            responses.add(future.join());
+        }
+        for (int i = responses.size(); i < requests.size(); i++) {
+            responses.add(new WSResponse(0, WSResponse.EXCEPTION_BODY, 0, new InterruptedException("appel non lancé")));
+        }
+        logFanOut(report, requests, responses, System.currentTimeMillis() - start);
+        return responses;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            reponse = "exception";
-            if (report != null) {
-                report.log(expectedStatus == -1 ? Reporter.WARNING_STATUS_NO_SCREENSHOT : Reporter.FAIL_NEXT_STATUS_NO_SCREENSHOT, "Exception in NetClient:- \n", e);
+    private static void logFanOut(Reporter report, List<WSRequest> requests, List<WSResponse> responses, long durationMs) {
+        if (report == null) {
+            return;
+        }
+        int failures = 0;
+        long maxLatency = 0;
+        StringBuilder table = new StringBuilder("| # | appel | statut attendu/constaté | durée ms | réponse |  \n|---|---|---|---|---|  \n");
+        for (int i = 0; i < requests.size(); i++) {
+            WSRequest request = requests.get(i);
+            WSResponse response = responses.get(i);
+            boolean ok = response.hasStatus(request.getExpectedStatus());
+            if (!ok) failures++;
+            maxLatency = Math.max(maxLatency, response.getDurationMs());
+            String body = response.getException() != null ? response.getException().toString() : response.getBody();
+            body = body.length() > FAN_OUT_BODY_LENGTH ? body.substring(0, FAN_OUT_BODY_LENGTH) + "..." : body;
+            table.append("| ").append(i + 1).append(" | ").append(request.getMethod()).append(' ').append(fullUri(request.getUri(), request.getQueryString()))
+                    .append(" | ").append(ok ? "" : "**").append(request.getExpectedStatus()).append('/').append(response.getStatus()).append(ok ? "" : "**")
+                    .append(" | ").append(response.getDurationMs())
+                    .append(" | ").append(body.replace("|", "\\|").replace("\n", " ").replace("\r", " ").replace("<", "&lt;").replace(">", "&gt;"))
+                    .append(" |  \n");
+        }
+        report.log(failures == 0 ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS_NO_SCREENSHOT,
+                requests.size() + " appel(s) en " + durationMs + " ms, durée max " + maxLatency + " ms, " + failures + " statut(s) inattendu(s)  \n" + table, false);
+    }
+
+    private static Exception toException(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof Exception ex ? ex : new IllegalStateException(cause);
+    }
+
+    private static String fullUri(String uri, String queryString) {
+        if (queryString != null && !queryString.equals("")) {
+            return uri + "?" + URLEncoder.encode(queryString, StandardCharsets.UTF_8);
+        }
+        return uri;
+    }
+
+    private static HttpRequest buildRequest(String uri, String method, String queryString, String headers, String payload, String apiAuth) {
+        URI requestUri = URI.create(fullUri(uri, queryString));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(requestUri);
+        if (GlobalProp.isWsHttp2() && "https".equalsIgnoreCase(requestUri.getScheme())) {
+            // HTTP/2 négocié par TLS (ALPN) uniquement : en http, pas d'en-têtes Upgrade: h2c ajoutés aux appels
+            builder.version(HttpClient.Version.HTTP_2);
+        }
+        if (GlobalProp.getWsTimeoutSeconds() > 0) {
+            builder.timeout(Duration.ofSeconds(GlobalProp.getWsTimeoutSeconds()));
+        }
+        if (apiAuth != null) builder.header("Authorization", !(apiAuth.startsWith("Basic") || apiAuth.startsWith("Bearer")) ? "Basic " + apiAuth : apiAuth);
+        boolean contentType = false;
+        if (headers != null) {
+            for (String header : headers.split(";")) {
+                String name = header.split("=")[0];
+                if (RESTRICTED_HEADERS.contains(name.trim())) {
+                    continue;
+                }
+                contentType |= "Content-Type".equalsIgnoreCase(name.trim());
+                builder.setHeader(name, header.split("=")[1]);
             }
         }
-        String statusResultat = (expectedStatus == -1 || expectedStatus == status ? Reporter.PASS_STATUS : Reporter.FAIL_NEXT_STATUS_NO_SCREENSHOT);
-        if (report != null && (log || !statusResultat.equals(Reporter.PASS_STATUS))) {
-            report.log(statusResultat, "status attendu/constaté : " + expectedStatus + "/" + status + " on " + method + " " + uri + "  \n" + String.valueOf(payload).replace(",", ",  \n") + "  \n  \nréponse :" + (reponse.startsWith("%PDF") ? reponse.substring(0, 500) + ",... String tronquée dans le rapport" : reponse).replace(",", ",  \n"), false);
+        if (payload != null && !contentType) {
+            // type par défaut ajouté par HttpURLConnection à un corps sans Content-Type
+            builder.header("Content-Type", DEFAULT_CONTENT_TYPE);
         }
-        System.clearProperty(HTTPS_PROXY_HOST);
-        System.clearProperty(HTTPS_PROXY_PORT);
-        return reponse;
+        builder.method(method, payload != null ? HttpRequest.BodyPublishers.ofString(payload) : HttpRequest.BodyPublishers.noBody());
+        return builder.build();
     }
 
-    private static void setProxy(boolean proxy) {
-        if (proxy) {
-            System.setProperty(HTTPS_PROXY_HOST, GlobalProp.getProxyHost());
-            System.setProperty(HTTPS_PROXY_PORT, GlobalProp.getProxyPort());
-        } else {
-            System.clearProperty(HTTPS_PROXY_HOST);
-            System.clearProperty(HTTPS_PROXY_PORT);
+    private static HttpClient client(boolean proxy) {
+        boolean useProxy = proxy && GlobalProp.getProxyHost() != null && !GlobalProp.getProxyHost().isBlank();
+        HttpClient client = useProxy ? proxyClient : directClient;
+        if (client == null) {
+            synchronized (lock) {
+                client = useProxy ? proxyClient : directClient;
+                if (client == null) {
+                    HttpClient.Builder builder = HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_1_1)
+                            .followRedirects(HttpClient.Redirect.NORMAL);
+                    if (GlobalProp.getWsConnectTimeoutSeconds() > 0) {
+                        builder.connectTimeout(Duration.ofSeconds(GlobalProp.getWsConnectTimeoutSeconds()));
+                    }
+                    if (useProxy) {
+                        builder.proxy(ProxySelector.of(new InetSocketAddress(GlobalProp.getProxyHost(), Integer.parseInt(GlobalProp.getProxyPort().trim()))));
+                        proxyClient = client = builder.build();
+                    } else {
+                        if (ProxySelector.getDefault() != null) builder.proxy(ProxySelector.getDefault());
+                        directClient = client = builder.build();
+                    }
+                }
+            }
         }
+        return client;
     }
 
     /**
@@ -0,0 +1,54 @@
+package bcx.automation.report;
+
+import bcx.automation.properties.GlobalProp;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests unitaires de Reporter : logs déposés dans le ReportWriter quand asyncReport est activé.
+ */
+public class ReporterTest {
+    private boolean asyncReport;
+    private Reporter reporter;
+
+    @BeforeMethod
+    public void setUp() {
+        asyncReport = GlobalProp.isAsyncReport();
+        GlobalProp.setAsyncReport(true);
+        reporter = new Reporter();
+        reporter.initTest();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        reporter.flush();
+        GlobalProp.setAsyncReport(asyncReport);
+    }
+
+    @Test
+    public void passLogIsQueued() {
+        reporter.log(Reporter.PASS_STATUS, "log pass");
+        Assert.assertTrue(reporter.hasPendingAsyncEvent());
+    }
+
+    @Test
+    public void infoLogIsQueued() {
+        reporter.log(Reporter.INFO_STATUS, "log info");
+        Assert.assertTrue(reporter.hasPendingAsyncEvent());
+    }
+
+    @Test
+    public void warningWithoutScreenshotIsQueued() {
+        reporter.log(Reporter.WARNING_STATUS_NO_SCREENSHOT, "log warning");
+        Assert.assertTrue(reporter.hasPendingAsyncEvent());
+    }
+
+    @Test
+    public void flushWaitsForQueuedLogs() {
+        reporter.log(Reporter.PASS_STATUS, "log pass");
+        reporter.flush();
+        Assert.assertFalse(reporter.hasPendingAsyncEvent());
+    }
+}
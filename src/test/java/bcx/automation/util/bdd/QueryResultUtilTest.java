@@ -0,0 +1,95 @@
+package bcx.automation.util.bdd;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Stack;
+
+/**
+ * Tests unitaires de QueryResultUtil : index des colonnes, valeurs nulles et vues numériques.
+ */
+public class QueryResultUtilTest {
+
+    private static QueryResultUtil result() {
+        QueryResultUtil result = new QueryResultUtil(new String[]{"ID", "LIBELLE", "MONTANT"});
+        result.addRow(new String[]{"1", "premier", "10.5"});
+        result.addRow(new String[]{"2", null, null});
+        result.addRow(new String[]{"3", "troisième", "4.25"});
+        return result;
+    }
+
+    @Test
+    public void columnLookupIgnoresCase() {
+        QueryResultUtil result = result();
+        Assert.assertEquals(result.size(), 3);
+        Assert.assertEquals(result.get(0, "libelle"), "premier");
+        Assert.assertEquals(result.get("Id"), "1");
+        Assert.assertEquals(result.getColumn("id"), new String[]{"1", "2", "3"});
+        Assert.assertEquals(result.getFirstVal(), "1");
+        Assert.assertEquals(result.getColumnNames(), new String[]{"ID", "LIBELLE", "MONTANT"});
+    }
+
+    @Test
+    public void missingRowOrColumn() {
+        QueryResultUtil result = result();
+        Assert.assertNull(result.get(0, "ABSENTE"));
+        Assert.assertNull(result.get(5, "ID"));
+        Assert.assertNull(result.get(-1, "ID"));
+        Assert.assertEquals(result.getColumn("ABSENTE"), new String[3]);
+        Assert.assertEquals(result.getString(5, "ID"), "");
+        Assert.assertThrows(ArrayIndexOutOfBoundsException.class, () -> result.getRow(3));
+    }
+
+    @Test
+    public void nullValues() {
+        QueryResultUtil result = result();
+        Assert.assertNull(result.get(1, "LIBELLE"));
+        Assert.assertEquals(result.getString(1, "LIBELLE"), "");
+        Assert.assertEquals(result.get0IfNull(1, "MONTANT"), "0");
+        Assert.assertEquals(result.get0IfNull(9, "MONTANT"), "0");
+        Assert.assertEquals(result.get0IfNull(0, "MONTANT"), "10.5");
+    }
+
+    @Test
+    public void numericViews() {
+        QueryResultUtil result = result();
+        Assert.assertEquals(result.getDoubleColumn("montant"), new double[]{10.5, 0, 4.25});
+        Assert.assertSame(result.getDoubleColumn("MONTANT"), result.getDoubleColumn("montant"));
+        Assert.assertEquals(result.getLongColumn("ID"), new long[]{1, 2, 3});
+        Assert.assertEquals(result.getLong(0, "MONTANT"), 10L);
+        Assert.assertEquals(result.getDouble(2, "MONTANT"), 4.25);
+        Assert.assertEquals(result.getDouble(7, "MONTANT"), 0.0);
+        Assert.assertEquals(result.sum("MONTANT"), 14.75);
+        Assert.assertEquals(result.getDoubleColumn("ABSENTE").length, 0);
+        Assert.assertThrows(NumberFormatException.class, () -> result.getDoubleColumn("LIBELLE"));
+    }
+
+    @Test
+    public void numericViewsFollowAddedRows() {
+        QueryResultUtil result = result();
+        Assert.assertEquals(result.sum("MONTANT"), 14.75);
+        result.addRow(new String[]{"4", "quatrième", "0.25"});
+        Assert.assertEquals(result.sum("MONTANT"), 15.0);
+    }
+
+    @Test
+    public void stackConstructorAndCopy() {
+        Stack<LinkedHashMap<String, String>> stack = new Stack<>();
+        for (int i = 1; i <= 20; i++) {
+            LinkedHashMap<String, String> row = new LinkedHashMap<>();
+            row.put("ID", String.valueOf(i));
+            row.put("CODE", "C" + i);
+            stack.push(row);
+        }
+        QueryResultUtil result = new QueryResultUtil(stack);
+        Assert.assertEquals(result.size(), 20);
+        Assert.assertEquals(result.get(19, "CODE"), "C20");
+        Assert.assertEquals(result.getRow(4), stack.get(4));
+        Assert.assertEquals(result.getStack(), stack);
+        result.getStack().pop();
+        Assert.assertEquals(result.size(), 20);
+        Assert.assertEquals(new QueryResultUtil(new Stack<>()).size(), 0);
+        Assert.assertNull(new QueryResultUtil(new Stack<>()).getFirstVal());
+    }
+}